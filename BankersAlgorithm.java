@@ -1,12 +1,14 @@
 import java.util.Arrays;
+import java.util.Random;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class BankersAlgorithm {
     private static final Logger LOGGER = Logger.getLogger(BankersAlgorithm.class.getName());
     private final int numProcesses, numResources;
-    private final int[][] allocation, max, need;
+    private final int[] allocation, max, need;  // P x R, row-major: (i, j) lives at i * numResources + j
     private final int[] available;
+    private final SafetyChecker checker;
 
     public BankersAlgorithm(int numProcesses, int numResources, int[][] allocation, int[][] max, int[] available) {
         if (numProcesses <= 0 || numResources <= 0 || allocation == null || max == null || available == null)
@@ -14,20 +16,28 @@ public class BankersAlgorithm {
 
         this.numProcesses = numProcesses;
         this.numResources = numResources;
-        this.allocation = deepCopy(allocation);
-        this.max = deepCopy(max);
+        this.allocation = flatten(allocation, numProcesses, numResources);
+        this.max = flatten(max, numProcesses, numResources);
         this.available = Arrays.copyOf(available, available.length);
-        this.need = new int[numProcesses][numResources];
-        for (int i = 0; i < numProcesses; i++)
-            for (int j = 0; j < numResources; j++)
-                need[i][j] = max[i][j] - allocation[i][j];
+        this.need = new int[numProcesses * numResources];
+        for (int k = 0; k < need.length; k++)
+            need[k] = this.max[k] - this.allocation[k];
+        this.checker = new SafetyChecker(numProcesses, numResources);
     }
 
-    private int[][] deepCopy(int[][] matrix) {
-        return Arrays.stream(matrix).map(int[]::clone).toArray(int[][]::new);
+    // Copy a P x R matrix into one contiguous row-major array
+    static int[] flatten(int[][] matrix, int rows, int columns) {
+        if (matrix.length != rows) throw new IllegalArgumentException("Invalid input");
+        int[] flat = new int[rows * columns];
+        for (int i = 0; i < rows; i++) {
+            if (matrix[i].length != columns) throw new IllegalArgumentException("Invalid input");
+            System.arraycopy(matrix[i], 0, flat, i * columns, columns);
+        }
+        return flat;
     }
 
-    private boolean isSafe() {
+    // Reference O(P^2 * R) safety check; kept as the oracle for findSafeSequence
+    boolean isSafe() {
         boolean[] finish = new boolean[numProcesses];
         int[] work = Arrays.copyOf(available, numResources);
         int[] safeSequence = new int[numProcesses];
@@ -36,9 +46,9 @@ public class BankersAlgorithm {
         while (count < numProcesses) {
             boolean found = false;
             for (int i = 0; i < numProcesses; i++) {
-                if (!finish[i] && canAllocate(need[i], work)) {
-                    for (int j = 0; j < numResources; j++)
-                        work[j] += allocation[i][j];
+                if (!finish[i] && canAllocate(i, work)) {
+                    for (int j = 0, k = i * numResources; j < numResources; j++, k++)
+                        work[j] += allocation[k];
                     safeSequence[count++] = i;
                     finish[i] = true;
                     found = true;
@@ -49,12 +59,27 @@ public class BankersAlgorithm {
                 return false;
             }
         }
-        LOGGER.info("Safe sequence: " + Arrays.toString(safeSequence));
+        LOGGER.info(() -> "Safe sequence: " + Arrays.toString(safeSequence));
         return true;
     }
 
-    private boolean canAllocate(int[] need, int[] work) {
-        for (int i = 0; i < numResources; i++) if (need[i] > work[i]) return false;
+    private boolean isSafeIncremental() {
+        int[] safeSequence = findSafeSequence();
+        if (safeSequence == null) {
+            LOGGER.warning("System is not in safe state");
+            return false;
+        }
+        LOGGER.info(() -> "Safe sequence: " + Arrays.toString(safeSequence));
+        return true;
+    }
+
+    int[] findSafeSequence() {
+        return checker.findSafeSequence(available, allocation, need, -1, null);
+    }
+
+    // Tight loop over one contiguous need stripe
+    private boolean canAllocate(int process, int[] work) {
+        for (int j = 0, k = process * numResources; j < numResources; j++, k++) if (need[k] > work[j]) return false;
         return true;
     }
 
@@ -62,22 +87,116 @@ public class BankersAlgorithm {
         validateRequest(processId, request);
         for (int i = 0; i < numResources; i++) {
             available[i] -= request[i];
-            allocation[processId][i] += request[i];
-            need[processId][i] -= request[i];
+            allocation[processId * numResources + i] += request[i];
+            need[processId * numResources + i] -= request[i];
         }
-        if (isSafe()) {
-            LOGGER.info("Resources allocated to process " + processId);
+        if (isSafeIncremental()) {
+            LOGGER.info(() -> "Resources allocated to process " + processId);
             return true;
         }
         rollbackAllocation(processId, request);
         return false;
     }
 
+    // Admit a burst of requests in order, with the same grant/deny outcome as calling requestResources
+    // on each one (requests that exceed need or available are denied rather than thrown). The whole run
+    // of fitting requests is applied tentatively and checked once; if it is unsafe, a galloping search
+    // finds the longest safe prefix. Denying fewer grants never makes a safe state unsafe, so the prefix
+    // test is monotone and a burst costs O(log gap) safety checks per denial instead of one per request.
+    public synchronized boolean[] requestBatch(int[] processIds, int[][] requests) {
+        if (processIds.length != requests.length)
+            throw new IllegalArgumentException("Process IDs and requests differ in length");
+        for (int k = 0; k < requests.length; k++) {
+            if (processIds[k] < 0 || processIds[k] >= numProcesses || requests[k].length != numResources)
+                throw new IllegalArgumentException("Invalid process ID or request vector");
+            for (int i = 0; i < numResources; i++)
+                if (requests[k][i] < 0) throw new IllegalArgumentException("Invalid request");
+        }
+
+        boolean[] granted = new boolean[requests.length];
+        if (findSafeSequence() == null) {
+            LOGGER.warning("System is not in safe state");
+            return granted;
+        }
+
+        int start = 0;
+        while (start < requests.length) {
+            // Tentatively apply the run of requests that fit in need and available
+            int end = start;
+            while (end < requests.length && fits(processIds[end], requests[end])) {
+                shift(processIds, requests, end, end + 1, 1);
+                end++;
+            }
+            if (end == start) {
+                start++;
+                continue;
+            }
+            if (findSafeSequence() != null) {
+                Arrays.fill(granted, start, end, true);
+                start = end;
+                continue;
+            }
+
+            // Gallop, then binary search, for the longest safe prefix of the run
+            int safe = 0, unsafe = end - start, applied = unsafe;
+            for (int probe = 1; probe < unsafe; probe <<= 1) {
+                shift(processIds, requests, start + probe, start + applied, -1);
+                applied = probe;
+                if (findSafeSequence() == null) {
+                    unsafe = probe;
+                    break;
+                }
+                safe = probe;
+                shift(processIds, requests, start + applied, start + Math.min(probe << 1, unsafe), 1);
+                applied = Math.min(probe << 1, unsafe);
+            }
+            while (unsafe - safe > 1) {
+                int mid = (safe + unsafe) >>> 1;
+                if (mid < applied) shift(processIds, requests, start + mid, start + applied, -1);
+                else shift(processIds, requests, start + applied, start + mid, 1);
+                applied = mid;
+                if (findSafeSequence() != null) safe = mid;
+                else unsafe = mid;
+            }
+            if (safe < applied) shift(processIds, requests, start + safe, start + applied, -1);
+            else shift(processIds, requests, start + applied, start + safe, 1);
+
+            Arrays.fill(granted, start, start + safe, true);
+            start += safe + 1;  // The request that broke safety is denied
+        }
+
+        int count = 0;
+        for (boolean g : granted) if (g) count++;
+        int grantedCount = count;
+        LOGGER.info(() -> "Batch granted " + grantedCount + " of " + requests.length + " requests");
+        return granted;
+    }
+
+    private boolean fits(int processId, int[] request) {
+        for (int i = 0; i < numResources; i++) {
+            if (request[i] > need[processId * numResources + i] || request[i] > available[i]) return false;
+        }
+        return true;
+    }
+
+    // Apply (sign = 1) or undo (sign = -1) requests[from..to) on the live state
+    private void shift(int[] processIds, int[][] requests, int from, int to, int sign) {
+        for (int k = from; k < to; k++) {
+            int processId = processIds[k];
+            for (int i = 0; i < numResources; i++) {
+                int amount = sign * requests[k][i];
+                available[i] -= amount;
+                allocation[processId * numResources + i] += amount;
+                need[processId * numResources + i] -= amount;
+            }
+        }
+    }
+
     private void validateRequest(int processId, int[] request) {
         if (processId < 0 || processId >= numProcesses || request.length != numResources)
             throw new IllegalArgumentException("Invalid process ID or request vector");
         for (int i = 0; i < numResources; i++) {
-            if (request[i] < 0 || request[i] > need[processId][i] || request[i] > available[i])
+            if (request[i] < 0 || request[i] > need[processId * numResources + i] || request[i] > available[i])
                 throw new IllegalArgumentException("Invalid request");
         }
     }
@@ -85,32 +204,292 @@ public class BankersAlgorithm {
     private void rollbackAllocation(int processId, int[] request) {
         for (int i = 0; i < numResources; i++) {
             available[i] += request[i];
-            allocation[processId][i] -= request[i];
-            need[processId][i] += request[i];
+            allocation[processId * numResources + i] -= request[i];
+            need[processId * numResources + i] += request[i];
         }
-        LOGGER.warning("Request denied for process " + processId);
+        LOGGER.warning(() -> "Request denied for process " + processId);
     }
 
     public synchronized void releaseResources(int processId, int[] release) {
         validateRelease(processId, release);
         for (int i = 0; i < numResources; i++) {
-            allocation[processId][i] -= release[i];
-            need[processId][i] += release[i];
+            allocation[processId * numResources + i] -= release[i];
+            need[processId * numResources + i] += release[i];
             available[i] += release[i];
         }
-        LOGGER.info("Process " + processId + " released resources: " + Arrays.toString(release));
+        LOGGER.info(() -> "Process " + processId + " released resources: " + Arrays.toString(release));
     }
 
     private void validateRelease(int processId, int[] release) {
         if (processId < 0 || processId >= numProcesses || release.length != numResources)
             throw new IllegalArgumentException("Invalid process ID or release vector");
         for (int i = 0; i < numResources; i++) {
-            if (release[i] < 0 || release[i] > allocation[processId][i])
+            if (release[i] < 0 || release[i] > allocation[processId * numResources + i])
                 throw new IllegalArgumentException("Invalid release");
         }
     }
 
+    // Worklist safety check. Each resource keeps its processes sorted by need and a cursor that only
+    // moves forward as work grows; a process joins the worklist once all R of its needs fit.
+    // O(P * R * log P) for the sorts plus O(P * R) for the scan. Cheap linear sweeps run first, so states
+    // that the reference check clears in a pass or two skip the sorts. Reuses its sort buffers, so an
+    // instance must not be shared between threads.
+    static final class SafetyChecker {
+        private final int numProcesses, numResources;
+        private final long[][] sortedNeed;  // (need << 32 | process) per resource
+
+        SafetyChecker(int numProcesses, int numResources) {
+            this.numProcesses = numProcesses;
+            this.numResources = numResources;
+            this.sortedNeed = new long[numResources][numProcesses];
+        }
+
+        // Safe sequence for the given state, as if process had also been granted request
+        // (pass request == null to check the state as is). Returns null if unsafe.
+        int[] findSafeSequence(int[] available, int[] allocation, int[] need, int process, int[] request) {
+            int[] work = Arrays.copyOf(available, numResources);
+            if (request != null)
+                for (int j = 0; j < numResources; j++) work[j] -= request[j];
+
+            // Cheap sweeps in index order over the contiguous need stripes, as in the reference check.
+            // Each sweep only revisits unfinished processes; once a sweep finishes less than a quarter
+            // of them, the leftovers switch to the sorted worklist below.
+            int[] sequence = new int[numProcesses];
+            int[] pending = new int[numProcesses];
+            for (int i = 0; i < numProcesses; i++) pending[i] = i;
+            int count = 0, remaining = numProcesses;
+            while (remaining > 0) {
+                int kept = 0;
+                for (int p = 0; p < remaining; p++) {
+                    int i = pending[p], base = i * numResources;
+                    int[] extra = i == process ? request : null;
+                    if (fits(need, base, extra, work)) {
+                        for (int j = 0; j < numResources; j++)
+                            work[j] += allocation[base + j] + (extra != null ? extra[j] : 0);
+                        sequence[count++] = i;
+                    } else {
+                        pending[kept++] = i;
+                    }
+                }
+                boolean slow = (remaining - kept) * 4 < remaining;
+                remaining = kept;
+                if (slow) break;
+            }
+            if (count == numProcesses) return sequence;
+
+            // Walk need row by row so the flat matrix is read sequentially
+            for (int p = 0; p < remaining; p++) {
+                int i = pending[p], base = i * numResources;
+                int[] extra = i == process ? request : null;
+                for (int j = 0; j < numResources; j++)
+                    sortedNeed[j][p] = ((long) (need[base + j] - (extra != null ? extra[j] : 0)) << 32) | i;
+            }
+            for (int j = 0; j < numResources; j++)
+                Arrays.sort(sortedNeed[j], 0, remaining);
+
+            int[] cursor = new int[numResources];
+            int[] satisfied = new int[numProcesses];
+            int head = count, tail = count;
+
+            for (int j = 0; j < numResources; j++)
+                tail = advance(j, remaining, work, cursor, satisfied, sequence, tail);
+
+            while (head < tail) {
+                int i = sequence[head++];
+                for (int j = 0; j < numResources; j++) {
+                    int held = allocation[i * numResources + j] + (i == process && request != null ? request[j] : 0);
+                    if (held == 0) continue;
+                    work[j] += held;
+                    tail = advance(j, remaining, work, cursor, satisfied, sequence, tail);
+                }
+            }
+            return tail == numProcesses ? sequence : null;
+        }
+
+        // Tight loop over one contiguous need stripe, less any tentatively granted request
+        private boolean fits(int[] need, int base, int[] extra, int[] work) {
+            if (extra == null) {
+                for (int j = 0; j < numResources; j++) if (need[base + j] > work[j]) return false;
+            } else {
+                for (int j = 0; j < numResources; j++) if (need[base + j] - extra[j] > work[j]) return false;
+            }
+            return true;
+        }
+
+        // Move resource j's cursor past every process whose need for j now fits in work
+        private int advance(int j, int length, int[] work, int[] cursor, int[] satisfied, int[] worklist, int tail) {
+            long[] column = sortedNeed[j];
+            int c = cursor[j];
+            while (c < length && (int) (column[c] >> 32) <= work[j]) {
+                int i = (int) column[c++];
+                if (++satisfied[i] == numResources) worklist[tail++] = i;
+            }
+            cursor[j] = c;
+            return tail;
+        }
+    }
+
+    // Two P x R states for timing: "random" holds 0-1 and needs 0-2 more of each resource with 3 of each
+    // available, so nearly every process finishes in the first pass; in "chain" only the last process
+    // fits and each finish frees the one before it, so the reference check needs P passes
+    static BankersAlgorithm timingState(String kind, int numProcesses, int numResources) {
+        Random random = new Random(1);
+        int[][] allocation = new int[numProcesses][numResources], max = new int[numProcesses][numResources];
+        int[] available = new int[numResources];
+        boolean chain = kind.equals("chain");
+        Arrays.fill(available, chain ? 1 : 3);
+        for (int i = 0; i < numProcesses; i++) {
+            for (int j = 0; j < numResources; j++) {
+                allocation[i][j] = chain ? 1 : random.nextInt(2);
+                max[i][j] = chain ? 1 + numProcesses - i : allocation[i][j] + random.nextInt(3);
+            }
+        }
+        return new BankersAlgorithm(numProcesses, numResources, allocation, max, available);
+    }
+
+    // The pre-flattening layout, one int[] row per process, kept only so --time can compare it with the
+    // flat reference check: the same O(P^2 * R) passes with canAllocate over need[i]
+    static final class JaggedState {
+        private final int[][] allocation, need;
+        private final int[] available;
+
+        JaggedState(BankersAlgorithm banker) {
+            allocation = new int[banker.numProcesses][];
+            need = new int[banker.numProcesses][];
+            for (int i = 0; i < banker.numProcesses; i++) {
+                int from = i * banker.numResources, to = from + banker.numResources;
+                allocation[i] = Arrays.copyOfRange(banker.allocation, from, to);
+                need[i] = Arrays.copyOfRange(banker.need, from, to);
+            }
+            available = banker.available.clone();
+        }
+
+        boolean isSafe() {
+            boolean[] finish = new boolean[need.length];
+            int[] work = available.clone();
+            int count = 0;
+
+            while (count < need.length) {
+                boolean found = false;
+                for (int i = 0; i < need.length; i++) {
+                    if (!finish[i] && canAllocate(need[i], work)) {
+                        for (int j = 0; j < work.length; j++)
+                            work[j] += allocation[i][j];
+                        count++;
+                        finish[i] = true;
+                        found = true;
+                    }
+                }
+                if (!found) return false;
+            }
+            return true;
+        }
+
+        private boolean canAllocate(int[] need, int[] work) {
+            for (int j = 0; j < work.length; j++) if (need[j] > work[j]) return false;
+            return true;
+        }
+    }
+
+    // Median time of the reference check on the jagged and the flat layout, and of the worklist
+    // checker, on both timing states
+    private static void time(int numProcesses, int numResources, int repetitions) {
+        LOGGER.setLevel(Level.OFF);
+        String line = "+--------+---------------+-----------+-----------+-------------+------+";
+        System.out.println("\n" + line);
+        System.out.printf("| %-6s | %-13s | %-9s | %-9s | %-11s | %-4s |\n", "State", "P x R", "Jagged ms", "Flat ms", "Worklist ms", "Safe");
+        System.out.println(line);
+        for (String kind : new String[] { "random", "chain" }) {
+            BankersAlgorithm banker = timingState(kind, numProcesses, numResources);
+            JaggedState jagged = new JaggedState(banker);
+            long[] jaggedTimes = new long[repetitions], flat = new long[repetitions], worklist = new long[repetitions];
+            boolean safe = false;
+            for (int rep = 0; rep < repetitions; rep++) {
+                long start = System.nanoTime();
+                boolean jaggedSafe = jagged.isSafe();
+                long first = System.nanoTime();
+                safe = banker.isSafe();
+                long second = System.nanoTime();
+                boolean worklistSafe = banker.findSafeSequence() != null;
+                long end = System.nanoTime();
+                if (jaggedSafe != safe || worklistSafe != safe) throw new IllegalStateException("Checkers disagree");
+                jaggedTimes[rep] = first - start;
+                flat[rep] = second - first;
+                worklist[rep] = end - second;
+            }
+            Arrays.sort(jaggedTimes);
+            Arrays.sort(flat);
+            Arrays.sort(worklist);
+            System.out.printf("| %-6s | %-13s | %-9.2f | %-9.2f | %-11.2f | %-4s |\n", kind, numProcesses + " x " + numResources,
+                    jaggedTimes[repetitions / 2] / 1e6, flat[repetitions / 2] / 1e6, worklist[repetitions / 2] / 1e6,
+                    safe ? "yes" : "no");
+        }
+        System.out.println(line);
+    }
+
+    // Differential check of findSafeSequence against the isSafe oracle on small random states, both
+    // as is and with a tentative request, which must agree with applying the request and re-checking.
+    // Every sequence returned must also replay as a valid safe order.
+    private static void verify(int states) {
+        LOGGER.setLevel(Level.OFF);
+        Random random = new Random(7);
+        int safeStates = 0;
+        for (int t = 0; t < states; t++) {
+            int numProcesses = 1 + random.nextInt(12), numResources = 1 + random.nextInt(5);
+            int[][] allocation = new int[numProcesses][numResources], max = new int[numProcesses][numResources];
+            int[] available = new int[numResources];
+            for (int i = 0; i < numProcesses; i++) {
+                for (int j = 0; j < numResources; j++) {
+                    allocation[i][j] = random.nextInt(4);
+                    max[i][j] = allocation[i][j] + random.nextInt(5);
+                }
+            }
+            for (int j = 0; j < numResources; j++) available[j] = random.nextInt(6);
+            BankersAlgorithm banker = new BankersAlgorithm(numProcesses, numResources, allocation, max, available);
+
+            boolean safe = banker.isSafe();
+            banker.checkAgainstOracle(t, safe, banker.findSafeSequence());
+            if (safe) safeStates++;
+
+            // A request within need and available, checked tentatively, then applied for the oracle
+            int process = random.nextInt(numProcesses);
+            int[] request = new int[numResources];
+            for (int j = 0; j < numResources; j++)
+                request[j] = random.nextInt(1 + Math.min(banker.need[process * numResources + j], banker.available[j]));
+            int[] sequence = banker.checker.findSafeSequence(banker.available, banker.allocation, banker.need, process, request);
+            banker.shift(new int[] { process }, new int[][] { request }, 0, 1, 1);
+            banker.checkAgainstOracle(t, banker.isSafe(), sequence);
+        }
+        System.out.printf("Verified %d random states (%d safe): findSafeSequence matches isSafe\n", states, safeStates);
+    }
+
+    // The checker's verdict must match the oracle's, and a returned sequence must replay on this state
+    private void checkAgainstOracle(int state, boolean safe, int[] sequence) {
+        if (safe != (sequence != null))
+            throw new IllegalStateException("State " + state + ": isSafe " + safe + ", findSafeSequence " + Arrays.toString(sequence));
+        if (sequence == null) return;
+        int[] work = Arrays.copyOf(available, numResources);
+        boolean[] finished = new boolean[numProcesses];
+        for (int i : sequence) {
+            if (finished[i] || !canAllocate(i, work))
+                throw new IllegalStateException("State " + state + ": invalid safe sequence " + Arrays.toString(sequence));
+            finished[i] = true;
+            for (int j = 0; j < numResources; j++) work[j] += allocation[i * numResources + j];
+        }
+    }
+
+    // BankersAlgorithm [--time [processes] [resources] [repetitions] | --verify [states]]; no arguments
+    // runs the small demo
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--verify")) {
+            verify(args.length > 1 ? Integer.parseInt(args[1]) : 100_000);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--time")) {
+            time(args.length > 1 ? Integer.parseInt(args[1]) : 10_000, args.length > 2 ? Integer.parseInt(args[2]) : 256,
+                    args.length > 3 ? Integer.parseInt(args[3]) : 11);
+            return;
+        }
         try {
             int numProcesses = 5, numResources = 3;
             int[][] allocation = { {0, 1, 0}, {2, 0, 0}, {3, 0, 2}, {2, 1, 1}, {0, 0, 2} };
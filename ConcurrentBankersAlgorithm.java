@@ -0,0 +1,212 @@
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Banker's algorithm with optimistic requests and lock-light releases.
+// Releases never make a safe state unsafe, so they just take the write lock and skip the safety check.
+// Requests run the safety check against an optimistic view of the state and only take the write lock
+// to commit; the commit succeeds as long as no other grant happened in between, and otherwise the
+// request is checked once more under the write lock.
+public class ConcurrentBankersAlgorithm {
+    private static final Logger LOGGER = Logger.getLogger(ConcurrentBankersAlgorithm.class.getName());
+
+    private final int numProcesses, numResources;
+    private final int[] allocation, need;  // P x R, row-major
+    private final int[] available;
+    private final StampedLock lock = new StampedLock();
+    private final ThreadLocal<BankersAlgorithm.SafetyChecker> checkers;
+    private long grantEpoch;  // Bumped on every grant; releases leave it alone
+
+    public ConcurrentBankersAlgorithm(int numProcesses, int numResources, int[][] allocation, int[][] max, int[] available) {
+        if (numProcesses <= 0 || numResources <= 0 || allocation == null || max == null || available == null)
+            throw new IllegalArgumentException("Invalid input");
+
+        this.numProcesses = numProcesses;
+        this.numResources = numResources;
+        this.allocation = BankersAlgorithm.flatten(allocation, numProcesses, numResources);
+        this.available = Arrays.copyOf(available, available.length);
+        this.need = BankersAlgorithm.flatten(max, numProcesses, numResources);
+        for (int k = 0; k < need.length; k++)
+            need[k] -= this.allocation[k];
+        this.checkers = ThreadLocal.withInitial(() -> new BankersAlgorithm.SafetyChecker(numProcesses, numResources));
+    }
+
+    public boolean requestResources(int processId, int[] request) {
+        if (processId < 0 || processId >= numProcesses || request.length != numResources)
+            throw new IllegalArgumentException("Invalid process ID or request vector");
+        for (int i = 0; i < numResources; i++)
+            if (request[i] < 0) throw new IllegalArgumentException("Invalid request");
+
+        BankersAlgorithm.SafetyChecker checker = checkers.get();
+        // One optimistic attempt: a check that loses a race once is likely to lose it again, so any
+        // conflict falls straight back to the write lock instead of paying for more wasted checks
+        long stamp = lock.tryOptimisticRead();
+        long epoch = grantEpoch;
+        boolean fits = fits(processId, request);
+        if (lock.validate(stamp)) {  // Fails for stamp 0 too; skip the safety check if a writer is already in
+            boolean safe = fits && checker.findSafeSequence(available, allocation, need, processId, request) != null;
+            if (lock.validate(stamp)) {
+                if (!fits) throw new IllegalArgumentException("Invalid request");
+                if (!safe) {
+                    LOGGER.fine(() -> "Request denied for process " + processId);
+                    return false;
+                }
+
+                long writeStamp = lock.writeLock();
+                try {
+                    // Releases since the check only grow available, so the verdict still holds
+                    if (grantEpoch == epoch) {
+                        apply(processId, request);
+                        return true;
+                    }
+                } finally {
+                    lock.unlockWrite(writeStamp);
+                }
+            }
+        }
+
+        // Lost the race: check and commit under the write lock
+        long writeStamp = lock.writeLock();
+        try {
+            if (!fits(processId, request)) throw new IllegalArgumentException("Invalid request");
+            if (checker.findSafeSequence(available, allocation, need, processId, request) == null) {
+                LOGGER.fine(() -> "Request denied for process " + processId);
+                return false;
+            }
+            apply(processId, request);
+            return true;
+        } finally {
+            lock.unlockWrite(writeStamp);
+        }
+    }
+
+    public void releaseResources(int processId, int[] release) {
+        if (processId < 0 || processId >= numProcesses || release.length != numResources)
+            throw new IllegalArgumentException("Invalid process ID or release vector");
+
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < numResources; i++) {
+                if (release[i] < 0 || release[i] > allocation[processId * numResources + i])
+                    throw new IllegalArgumentException("Invalid release");
+            }
+            for (int i = 0; i < numResources; i++) {
+                allocation[processId * numResources + i] -= release[i];
+                need[processId * numResources + i] += release[i];
+                available[i] += release[i];
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        LOGGER.fine(() -> "Process " + processId + " released resources: " + Arrays.toString(release));
+    }
+
+    private boolean fits(int processId, int[] request) {
+        for (int i = 0; i < numResources; i++) {
+            if (request[i] > need[processId * numResources + i] || request[i] > available[i]) return false;
+        }
+        return true;
+    }
+
+    private void apply(int processId, int[] request) {
+        for (int i = 0; i < numResources; i++) {
+            available[i] -= request[i];
+            allocation[processId * numResources + i] += request[i];
+            need[processId * numResources + i] -= request[i];
+        }
+        grantEpoch++;
+        LOGGER.fine(() -> "Resources allocated to process " + processId);
+    }
+
+    // Common interface over the two allocators for the benchmark
+    private interface Allocator {
+        boolean request(int processId, int[] request);
+
+        void release(int processId, int[] release);
+    }
+
+    // Each thread owns a disjoint set of processes and alternates request / release on them.
+    // Returns completed operations per second.
+    private static double measure(Allocator allocator, int threads, int numProcesses, int numResources,
+                                  long durationMillis) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + durationMillis * 1_000_000L;
+        Thread[] workers = new Thread[threads];
+
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int[][] held = new int[numProcesses][numResources];
+                int[] vector = new int[numResources];
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (System.nanoTime() < deadline) {
+                    for (int p = first; p < numProcesses; p += threads) {
+                        boolean holding = false;
+                        for (int j = 0; j < numResources; j++) holding |= held[p][j] > 0;
+                        if (holding) {
+                            allocator.release(p, held[p]);
+                            held[p] = new int[numResources];
+                        } else {
+                            for (int j = 0; j < numResources; j++) vector[j] = random.nextInt(2);
+                            try {
+                                if (allocator.request(p, vector)) held[p] = vector.clone();
+                            } catch (IllegalArgumentException e) {
+                                // Not enough available right now; counts as a denied request
+                            }
+                        }
+                        operations.increment();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        return operations.sum() / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Logger.getLogger(BankersAlgorithm.class.getName()).setLevel(Level.OFF);
+        int numProcesses = 256, numResources = 16, maxNeed = 4;
+        long durationMillis = args.length > 0 ? Long.parseLong(args[0]) : 500;
+
+        int[][] allocation = new int[numProcesses][numResources];
+        int[][] max = new int[numProcesses][numResources];
+        for (int[] row : max) Arrays.fill(row, maxNeed);
+        int[] available = new int[numResources];
+        Arrays.fill(available, numProcesses * maxNeed / 8);
+
+        System.out.println("\n+---------+-----------------+-----------------+---------+");
+        System.out.printf("| %-7s | %-15s | %-15s | %-7s |\n", "Threads", "Monitor ops/s", "Stamped ops/s", "Speedup");
+        System.out.println("+---------+-----------------+-----------------+---------+");
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            BankersAlgorithm monitor = new BankersAlgorithm(numProcesses, numResources, allocation, max, available);
+            ConcurrentBankersAlgorithm stamped = new ConcurrentBankersAlgorithm(numProcesses, numResources, allocation, max, available);
+
+            double monitorOps = measure(new Allocator() {
+                public boolean request(int processId, int[] request) { return monitor.requestResources(processId, request); }
+                public void release(int processId, int[] release) { monitor.releaseResources(processId, release); }
+            }, threads, numProcesses, numResources, durationMillis);
+            double stampedOps = measure(new Allocator() {
+                public boolean request(int processId, int[] request) { return stamped.requestResources(processId, request); }
+                public void release(int processId, int[] release) { stamped.releaseResources(processId, release); }
+            }, threads, numProcesses, numResources, durationMillis);
+
+            System.out.printf("| %-7d | %-15.0f | %-15.0f | %-7.2f |\n", threads, monitorOps, stampedOps, stampedOps / monitorOps);
+        }
+        System.out.println("+---------+-----------------+-----------------+---------+");
+    }
+}
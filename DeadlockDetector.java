@@ -0,0 +1,661 @@
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Deadlock detection instead of avoidance: a request is granted whenever the resources are available,
+// otherwise the process blocks until a release lets its whole request fit. Processes declare no max.
+// The wait-for graph is kept as per-resource holder and waiter lists. Each time a process blocks, the
+// multi-instance detection algorithm runs on the part of the graph reachable from that process only
+// (plus, once a deadlock is found, the processes queued behind it): a blocked process waits for the
+// holders of every resource it is short of, and a process that is not blocked can always finish.
+// Every new deadlock needs a process to block, so checking only there finds all of them. The cost is
+// the closure size times R, since each process in it scans all R columns. The closure is not always
+// small: with few units per process it can cover most blocked processes (156.6 of 256 on average in
+// the 256 x 16 comparison). Aborting the process whose request closed a deadlock always breaks it, since
+// the state before that request was free of one.
+public class DeadlockDetector {
+
+    public enum Outcome { GRANTED, BLOCKED, DEADLOCKED }
+
+    private static final Logger LOGGER = Logger.getLogger(DeadlockDetector.class.getName());
+
+    private final int numProcesses, numResources;
+    private final int[] allocation, request;  // P x R, row-major; request is the pending blocked request
+    private final int[] available;
+    private final boolean[] blocked;
+    private final long[] blockedAt;  // Block order, so releases wake waiters first come first served
+    private long blockCount;
+    private final ResourceLists holders, waiters;
+
+    // Scratch for detection: visit marks are epoch numbers, so nothing is cleared between runs
+    private final int[] visited, closure, work;
+    private int epoch;
+    private int[] deadlocked = new int[0];
+    private long detections, detectionVisits;
+
+    public DeadlockDetector(int numProcesses, int numResources, int[] available) {
+        if (numProcesses <= 0 || numResources <= 0 || available == null || available.length != numResources)
+            throw new IllegalArgumentException("Invalid input");
+        for (int units : available) if (units < 0) throw new IllegalArgumentException("Invalid input");
+
+        this.numProcesses = numProcesses;
+        this.numResources = numResources;
+        this.allocation = new int[numProcesses * numResources];
+        this.request = new int[numProcesses * numResources];
+        this.available = Arrays.copyOf(available, numResources);
+        this.blocked = new boolean[numProcesses];
+        this.blockedAt = new long[numProcesses];
+        this.holders = new ResourceLists(numProcesses, numResources);
+        this.waiters = new ResourceLists(numProcesses, numResources);
+        this.visited = new int[numProcesses];
+        this.closure = new int[numProcesses];
+        this.work = new int[numResources];
+    }
+
+    // Grants the request if it fits in available; otherwise blocks the process and checks whether that
+    // closed a deadlock, whose members deadlockedSet() then returns. A blocked process stays blocked
+    // (and must not request again) until a release wakes it or it is aborted.
+    public synchronized Outcome requestResources(int processId, int[] req) {
+        validateRequest(processId, req);
+        if (fits(req)) {
+            grant(processId, req);
+            LOGGER.fine(() -> "Resources allocated to process " + processId);
+            return Outcome.GRANTED;
+        }
+
+        int base = processId * numResources;
+        System.arraycopy(req, 0, request, base, numResources);
+        blocked[processId] = true;
+        blockedAt[processId] = blockCount++;
+        for (int j = 0; j < numResources; j++) if (req[j] > 0) waiters.add(j, processId);
+        LOGGER.fine(() -> "Process " + processId + " blocked");
+
+        deadlocked = detect(processId);
+        if (deadlocked.length == 0) return Outcome.BLOCKED;
+        LOGGER.warning(() -> "Deadlock: processes " + Arrays.toString(deadlocked));
+        return Outcome.DEADLOCKED;
+    }
+
+    // Releases resources and grants every blocked request that now fits, oldest first.
+    // Returns the processes that were woken.
+    public synchronized int[] releaseResources(int processId, int[] release) {
+        validateRelease(processId, release);
+        for (int j = 0; j < numResources; j++) {
+            if (release[j] == 0) continue;
+            available[j] += release[j];
+            if ((allocation[processId * numResources + j] -= release[j]) == 0) holders.remove(j, processId);
+        }
+        LOGGER.fine(() -> "Process " + processId + " released resources: " + Arrays.toString(release));
+        return wake(release);
+    }
+
+    // Deadlock recovery: drops the process's pending request and everything it holds.
+    // Returns the processes that were woken.
+    public synchronized int[] abort(int processId) {
+        if (processId < 0 || processId >= numProcesses) throw new IllegalArgumentException("Invalid process ID");
+        if (blocked[processId]) unblock(processId);
+        int[] freed = Arrays.copyOfRange(allocation, processId * numResources, (processId + 1) * numResources);
+        for (int j = 0; j < numResources; j++) {
+            if (freed[j] == 0) continue;
+            available[j] += freed[j];
+            allocation[processId * numResources + j] = 0;
+            holders.remove(j, processId);
+        }
+        LOGGER.fine(() -> "Process " + processId + " aborted");
+        return wake(freed);
+    }
+
+    // Members of the deadlock found by the last request that returned DEADLOCKED
+    public synchronized int[] deadlockedSet() {
+        return deadlocked.clone();
+    }
+
+    synchronized boolean isBlocked(int processId) {
+        return blocked[processId];
+    }
+
+    synchronized int allocated(int processId, int resource) {
+        return allocation[processId * numResources + resource];
+    }
+
+    // Average number of processes examined per detection run
+    synchronized double averageClosure() {
+        return detections == 0 ? 0 : (double) detectionVisits / detections;
+    }
+
+    // Multi-instance detection on the closure of `start`. Returns the deadlocked processes: those in
+    // the closure that cannot finish, plus every blocked process that waits for one of them.
+    private int[] detect(int start) {
+        detections++;
+        closure[0] = start;
+        int unfinished = reduce(1);
+        if (unfinished > 0) unfinished = reduce(waitingBehind(unfinished));
+        int[] result = Arrays.copyOf(closure, unfinished);
+        Arrays.sort(result);
+        return result;
+    }
+
+    // Extends the seeds in closure[0..seeds) to everything they transitively wait for, then runs the
+    // reduction over that set. Leaves the processes that cannot finish in closure[0..result).
+    private int reduce(int seeds) {
+        epoch++;
+        for (int c = 0; c < seeds; c++) visited[closure[c]] = epoch;
+        int size = seeds;
+        for (int head = 0; head < size; head++) {
+            int q = closure[head];
+            if (!blocked[q]) continue;  // Can run to completion; nothing it waits for
+            for (int j = 0, k = q * numResources; j < numResources; j++, k++) {
+                if (request[k] <= available[j]) continue;
+                for (int h = 0, n = holders.size(j); h < n; h++) {
+                    int holder = holders.get(j, h);
+                    if (visited[holder] != epoch) {
+                        visited[holder] = epoch;
+                        closure[size++] = holder;
+                    }
+                }
+            }
+        }
+        detectionVisits += size;
+
+        // Processes that are not blocked finish and release; then any blocked process whose request
+        // fits in work does the same. Only resources held inside the closure can reach anyone in it,
+        // and everything else the closure asks for already fits in available.
+        System.arraycopy(available, 0, work, 0, numResources);
+        int unfinished = 0;
+        for (int c = 0; c < size; c++) {
+            int q = closure[c];
+            if (blocked[q]) closure[unfinished++] = q;
+            else finish(q);
+        }
+        boolean progress = true;
+        while (progress && unfinished > 0) {
+            progress = false;
+            int kept = 0;
+            for (int c = 0; c < unfinished; c++) {
+                int q = closure[c];
+                if (requestFits(q)) {
+                    finish(q);
+                    progress = true;
+                } else {
+                    closure[kept++] = q;
+                }
+            }
+            unfinished = kept;
+        }
+        return unfinished;
+    }
+
+    // Adds to the deadlocked processes in closure[0..count) every blocked process that is short of a
+    // resource one of them holds, transitively. Returns the new count.
+    private int waitingBehind(int count) {
+        epoch++;
+        for (int c = 0; c < count; c++) visited[closure[c]] = epoch;
+        for (int head = 0; head < count; head++) {
+            int d = closure[head];
+            for (int j = 0, k = d * numResources; j < numResources; j++, k++) {
+                if (allocation[k] == 0) continue;
+                for (int w = 0, n = waiters.size(j); w < n; w++) {
+                    int q = waiters.get(j, w);
+                    if (visited[q] != epoch && request[q * numResources + j] > available[j]) {
+                        visited[q] = epoch;
+                        closure[count++] = q;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private void finish(int q) {
+        for (int j = 0, k = q * numResources; j < numResources; j++, k++) work[j] += allocation[k];
+    }
+
+    private boolean requestFits(int q) {
+        for (int j = 0, k = q * numResources; j < numResources; j++, k++) if (request[k] > work[j]) return false;
+        return true;
+    }
+
+    // Grant, oldest first, every blocked request on a resource that just gained units and now fits
+    private int[] wake(int[] freed) {
+        int candidates = 0;
+        epoch++;
+        for (int j = 0; j < numResources; j++) {
+            if (freed[j] == 0) continue;
+            for (int w = 0, n = waiters.size(j); w < n; w++) {
+                int q = waiters.get(j, w);
+                if (visited[q] != epoch) {
+                    visited[q] = epoch;
+                    closure[candidates++] = q;
+                }
+            }
+        }
+        long[] order = new long[candidates];
+        for (int c = 0; c < candidates; c++) order[c] = (blockedAt[closure[c]] << 32) | closure[c];
+        Arrays.sort(order);
+
+        int[] woken = new int[candidates];
+        int count = 0;
+        int[] req = new int[numResources];
+        for (long key : order) {
+            int q = (int) key;
+            System.arraycopy(request, q * numResources, req, 0, numResources);
+            if (!fits(req)) continue;
+            unblock(q);
+            grant(q, req);
+            woken[count++] = q;
+        }
+        return Arrays.copyOf(woken, count);
+    }
+
+    private void unblock(int processId) {
+        int base = processId * numResources;
+        for (int j = 0; j < numResources; j++) {
+            if (request[base + j] > 0) waiters.remove(j, processId);
+            request[base + j] = 0;
+        }
+        blocked[processId] = false;
+    }
+
+    private boolean fits(int[] req) {
+        for (int j = 0; j < numResources; j++) if (req[j] > available[j]) return false;
+        return true;
+    }
+
+    private void grant(int processId, int[] req) {
+        for (int j = 0; j < numResources; j++) {
+            if (req[j] == 0) continue;
+            available[j] -= req[j];
+            if ((allocation[processId * numResources + j] += req[j]) == req[j]) holders.add(j, processId);
+        }
+    }
+
+    private void validateRequest(int processId, int[] req) {
+        if (processId < 0 || processId >= numProcesses || req.length != numResources)
+            throw new IllegalArgumentException("Invalid process ID or request vector");
+        if (blocked[processId]) throw new IllegalArgumentException("Process " + processId + " is blocked");
+        for (int j = 0; j < numResources; j++) if (req[j] < 0) throw new IllegalArgumentException("Invalid request");
+    }
+
+    private void validateRelease(int processId, int[] release) {
+        if (processId < 0 || processId >= numProcesses || release.length != numResources)
+            throw new IllegalArgumentException("Invalid process ID or release vector");
+        for (int j = 0; j < numResources; j++) {
+            if (release[j] < 0 || release[j] > allocation[processId * numResources + j])
+                throw new IllegalArgumentException("Invalid release");
+        }
+    }
+
+    // One unordered set of processes per resource with O(1) add and remove (swap with the last member)
+    private static final class ResourceLists {
+        private final int numResources;
+        private final int[][] members;
+        private final int[] size;
+        private final int[] position;  // P x R: index of process i in list j
+
+        ResourceLists(int numProcesses, int numResources) {
+            this.numResources = numResources;
+            this.members = new int[numResources][4];
+            this.size = new int[numResources];
+            this.position = new int[numProcesses * numResources];
+        }
+
+        int size(int j) {
+            return size[j];
+        }
+
+        int get(int j, int index) {
+            return members[j][index];
+        }
+
+        void add(int j, int process) {
+            if (size[j] == members[j].length) members[j] = Arrays.copyOf(members[j], size[j] * 2);
+            position[process * numResources + j] = size[j];
+            members[j][size[j]++] = process;
+        }
+
+        void remove(int j, int process) {
+            int index = position[process * numResources + j];
+            int last = members[j][--size[j]];
+            members[j][index] = last;
+            position[last * numResources + j] = index;
+        }
+    }
+
+    // Simulated workload for the comparison: every process declares `maxClaim` units of each resource,
+    // but a job only uses a random target, usually far below it. A job requests its target in a few
+    // chunks, then releases everything. Each step picks a random process that is not blocked.
+    private static final class Workload {
+        final int numProcesses, numResources, maxClaim;
+        final int[] target, held;
+        final Random random;
+
+        Workload(int numProcesses, int numResources, int maxClaim, long seed) {
+            this.numProcesses = numProcesses;
+            this.numResources = numResources;
+            this.maxClaim = maxClaim;
+            this.target = new int[numProcesses * numResources];
+            this.held = new int[numProcesses * numResources];
+            this.random = new Random(seed);
+            for (int p = 0; p < numProcesses; p++) newJob(p);
+        }
+
+        void newJob(int p) {
+            for (int j = 0, k = p * numResources; j < numResources; j++, k++) {
+                // One job in ten goes up to its max claim, the rest stay within a quarter of it
+                int limit = random.nextInt(10) == 0 ? maxClaim : Math.max(1, maxClaim / 4);
+                target[k] = random.nextInt(limit + 1);
+                held[k] = 0;
+            }
+        }
+
+        boolean done(int p) {
+            for (int j = 0, k = p * numResources; j < numResources; j++, k++) if (held[k] < target[k]) return false;
+            return true;
+        }
+
+        // Next chunk of the job: up to half of what is still missing per resource, at least one unit
+        int[] nextChunk(int p) {
+            int[] chunk = new int[numResources];
+            for (int j = 0, k = p * numResources; j < numResources; j++, k++) {
+                int missing = target[k] - held[k];
+                if (missing > 0) chunk[j] = 1 + random.nextInt((missing + 1) / 2);
+            }
+            return chunk;
+        }
+
+        void add(int p, int[] chunk) {
+            for (int j = 0; j < numResources; j++) held[p * numResources + j] += chunk[j];
+        }
+
+        int[] heldBy(int p) {
+            return Arrays.copyOfRange(held, p * numResources, (p + 1) * numResources);
+        }
+    }
+
+    // Counters for one run of the comparison
+    private static final class RunStats {
+        long grants, refusals, deadlocks, aborts, jobs, units, nanos;
+        double utilization;
+        int steps;
+    }
+
+    private static RunStats runBanker(int numProcesses, int numResources, int maxClaim, int[] available, int steps) {
+        Workload workload = new Workload(numProcesses, numResources, maxClaim, 7);
+        int[][] max = new int[numProcesses][numResources];
+        for (int[] row : max) Arrays.fill(row, maxClaim);
+        BankersAlgorithm banker = new BankersAlgorithm(numProcesses, numResources, new int[numProcesses][numResources], max, available);
+        RunStats stats = new RunStats();
+        long capacity = Arrays.stream(available).asLongStream().sum(), inUse = 0, usage = 0;
+        int[] free = available.clone();  // Mirrors the banker's available vector
+
+        long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            int p = workload.random.nextInt(numProcesses);
+            if (workload.done(p)) {
+                int[] held = workload.heldBy(p);
+                banker.releaseResources(p, held);
+                for (int j = 0; j < numResources; j++) free[j] += held[j];
+                inUse -= Arrays.stream(held).sum();
+                stats.jobs++;
+                workload.newJob(p);
+            } else {
+                int[] chunk = workload.nextChunk(p);
+                // A chunk never exceeds the job's need, so only one larger than what is free right now
+                // would be rejected by validation; refuse it here rather than through an exception
+                boolean granted = fits(chunk, free) && banker.requestResources(p, chunk);
+                if (granted) {
+                    for (int j = 0; j < numResources; j++) free[j] -= chunk[j];
+                    workload.add(p, chunk);
+                    inUse += Arrays.stream(chunk).sum();
+                    stats.grants++;
+                } else {
+                    stats.refusals++;  // Denied; the process asks again the next time it is picked
+                }
+            }
+            usage += inUse;
+        }
+        stats.nanos = System.nanoTime() - start;
+        stats.steps = steps;
+        stats.utilization = (double) usage / steps / capacity;
+        return stats;
+    }
+
+    private static boolean fits(int[] chunk, int[] free) {
+        for (int j = 0; j < chunk.length; j++) if (chunk[j] > free[j]) return false;
+        return true;
+    }
+
+    private static RunStats runDetector(int numProcesses, int numResources, int maxClaim, int[] available, int steps,
+                                        double[] averageClosure) {
+        Workload workload = new Workload(numProcesses, numResources, maxClaim, 7);
+        DeadlockDetector detector = new DeadlockDetector(numProcesses, numResources, available);
+        int[][] pending = new int[numProcesses][];  // Chunk a blocked process is waiting for
+        RunStats stats = new RunStats();
+        long capacity = Arrays.stream(available).asLongStream().sum(), inUse = 0, usage = 0;
+
+        long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            int p = workload.random.nextInt(numProcesses);
+            int[] woken = null;
+            if (detector.isBlocked(p)) {
+                // Blocked: nothing to do this step
+            } else if (workload.done(p)) {
+                int[] held = workload.heldBy(p);
+                woken = detector.releaseResources(p, held);
+                inUse -= Arrays.stream(held).sum();
+                stats.jobs++;
+                workload.newJob(p);
+            } else {
+                int[] chunk = workload.nextChunk(p);
+                Outcome outcome = detector.requestResources(p, chunk);
+                if (outcome == Outcome.GRANTED) {
+                    workload.add(p, chunk);
+                    inUse += Arrays.stream(chunk).sum();
+                    stats.grants++;
+                } else if (outcome == Outcome.BLOCKED) {
+                    pending[p] = chunk;
+                    stats.refusals++;
+                } else {
+                    // Recover by aborting the process that closed the cycle; its job starts over
+                    stats.refusals++;
+                    stats.deadlocks++;
+                    stats.aborts++;
+                    inUse -= Arrays.stream(workload.heldBy(p)).sum();
+                    woken = detector.abort(p);
+                    workload.newJob(p);
+                }
+            }
+            if (woken != null) {
+                for (int q : woken) {
+                    workload.add(q, pending[q]);
+                    inUse += Arrays.stream(pending[q]).sum();
+                    stats.grants++;
+                    pending[q] = null;
+                }
+            }
+            usage += inUse;
+        }
+        stats.nanos = System.nanoTime() - start;
+        stats.steps = steps;
+        stats.utilization = (double) usage / steps / capacity;
+        averageClosure[0] = detector.averageClosure();
+        return stats;
+    }
+
+    private static void printRow(String scheme, RunStats stats, String closure) {
+        System.out.printf("| %-9s | %-10d | %-10d | %-9d | %-8d | %-9d | %-11.1f | %-11.0f | %-8s |\n", scheme, stats.grants,
+                stats.refusals, stats.deadlocks, stats.aborts, stats.jobs, 100 * stats.utilization,
+                stats.grants / (stats.nanos / 1e9), closure);
+    }
+
+    // Avoidance against detection on one configuration; available is an eighth of the total max claim
+    private static void compare(int numProcesses, int numResources, int steps, int maxClaim) {
+        int[] available = new int[numResources];
+        Arrays.fill(available, numProcesses * maxClaim / 8);
+        RunStats banker = runBanker(numProcesses, numResources, maxClaim, available, steps);
+        double[] averageClosure = new double[1];
+        RunStats detector = runDetector(numProcesses, numResources, maxClaim, available, steps, averageClosure);
+
+        System.out.printf("\n%d processes, %d resources x %d units, max claim %d, %d steps\n", numProcesses, numResources,
+                available[0], maxClaim, steps);
+        String line = "+-----------+------------+------------+-----------+----------+-----------+-------------+-------------+----------+";
+        System.out.println(line);
+        System.out.printf("| %-9s | %-10s | %-10s | %-9s | %-8s | %-9s | %-11s | %-11s | %-8s |\n", "Scheme", "Grants", "Refused",
+                "Deadlocks", "Aborts", "Jobs done", "Util. %", "Grants/s", "Closure");
+        System.out.println(line);
+        printRow("Avoidance", banker, "-");
+        printRow("Detection", detector, String.format("%.1f", averageClosure[0]));
+        System.out.println(line);
+    }
+
+    // Differential check against full P x R detection. Random requests and releases on small systems
+    // drive the detector and an independent copy of the state; whenever a request blocks, the reduction
+    // over every process must find exactly the set the detector reports (empty unless DEADLOCKED).
+    // Aborting the requester must leave no deadlock, and no blocked request may fit after a wake-up.
+    private static void verify(int trials) {
+        Random random = new Random(1);
+        long checks = 0, deadlocks = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            int numProcesses = 2 + random.nextInt(8), numResources = 1 + random.nextInt(4);
+            int[] available = new int[numResources];
+            for (int j = 0; j < numResources; j++) available[j] = 1 + random.nextInt(4);
+            DeadlockDetector detector = new DeadlockDetector(numProcesses, numResources, available);
+            int[][] allocation = new int[numProcesses][numResources], request = new int[numProcesses][numResources];
+            boolean[] blocked = new boolean[numProcesses];
+
+            for (int step = 0; step < 200; step++) {
+                int p = random.nextInt(numProcesses);
+                if (blocked[p]) continue;
+                if (random.nextInt(3) == 0) {
+                    int[] release = new int[numResources];
+                    for (int j = 0; j < numResources; j++) release[j] = random.nextInt(allocation[p][j] + 1);
+                    int[] woken = detector.releaseResources(p, release);
+                    for (int j = 0; j < numResources; j++) {
+                        allocation[p][j] -= release[j];
+                        available[j] += release[j];
+                    }
+                    applyWoken(woken, allocation, request, blocked, available);
+                } else {
+                    int[] req = new int[numResources];
+                    for (int j = 0; j < numResources; j++) req[j] = random.nextInt(3);
+                    Outcome outcome = detector.requestResources(p, req);
+                    boolean fits = true;
+                    for (int j = 0; j < numResources; j++) fits &= req[j] <= available[j];
+                    if (fits != (outcome == Outcome.GRANTED))
+                        throw new IllegalStateException("Trial " + trial + ": P" + p + " " + outcome + " but fits is " + fits);
+                    if (fits) {
+                        for (int j = 0; j < numResources; j++) {
+                            allocation[p][j] += req[j];
+                            available[j] -= req[j];
+                        }
+                        continue;
+                    }
+
+                    blocked[p] = true;
+                    request[p] = req;
+                    int[] expected = fullDetect(allocation, request, blocked, available);
+                    int[] reported = outcome == Outcome.DEADLOCKED ? detector.deadlockedSet() : new int[0];
+                    checks++;
+                    if (!Arrays.equals(expected, reported))
+                        throw new IllegalStateException("Trial " + trial + ": full detection " + Arrays.toString(expected)
+                                + ", detector " + Arrays.toString(reported));
+                    if (outcome == Outcome.DEADLOCKED) {
+                        deadlocks++;
+                        int[] woken = detector.abort(p);
+                        blocked[p] = false;
+                        request[p] = new int[numResources];
+                        for (int j = 0; j < numResources; j++) {
+                            available[j] += allocation[p][j];
+                            allocation[p][j] = 0;
+                        }
+                        applyWoken(woken, allocation, request, blocked, available);
+                        if (fullDetect(allocation, request, blocked, available).length != 0)
+                            throw new IllegalStateException("Trial " + trial + ": aborting P" + p + " left a deadlock");
+                    }
+                }
+
+                for (int i = 0; i < numProcesses; i++) {
+                    boolean stillFits = blocked[i];
+                    for (int j = 0; j < numResources; j++) {
+                        if (detector.allocated(i, j) != allocation[i][j] || detector.isBlocked(i) != blocked[i])
+                            throw new IllegalStateException("Trial " + trial + ": detector state differs at P" + i);
+                        stillFits &= request[i][j] <= available[j];
+                    }
+                    if (stillFits) throw new IllegalStateException("Trial " + trial + ": P" + i + " fits but was not woken");
+                }
+            }
+        }
+        System.out.printf("Verified %d trials: %d blocking requests, %d deadlocks, all matching full detection\n", trials,
+                checks, deadlocks);
+    }
+
+    // Grants the woken processes their pending requests in the copy of the state, in wake order
+    private static void applyWoken(int[] woken, int[][] allocation, int[][] request, boolean[] blocked, int[] available) {
+        for (int q : woken) {
+            if (!blocked[q]) throw new IllegalStateException("Woke P" + q + ", which was not blocked");
+            for (int j = 0; j < available.length; j++) {
+                allocation[q][j] += request[q][j];
+                if ((available[j] -= request[q][j]) < 0) throw new IllegalStateException("Woke P" + q + " beyond available");
+            }
+            blocked[q] = false;
+            request[q] = new int[available.length];
+        }
+    }
+
+    // Reference multi-instance detection over all P x R: every process that is not blocked finishes,
+    // then blocked ones whose request fits in work, until nothing changes. Returns the rest.
+    private static int[] fullDetect(int[][] allocation, int[][] request, boolean[] blocked, int[] available) {
+        int numProcesses = allocation.length, numResources = available.length;
+        int[] work = available.clone();
+        boolean[] finished = new boolean[numProcesses];
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (int i = 0; i < numProcesses; i++) {
+                if (finished[i]) continue;
+                boolean fits = true;
+                for (int j = 0; blocked[i] && j < numResources; j++) fits &= request[i][j] <= work[j];
+                if (!fits) continue;
+                finished[i] = progress = true;
+                for (int j = 0; j < numResources; j++) work[j] += allocation[i][j];
+            }
+        }
+        int count = 0;
+        int[] unfinished = new int[numProcesses];
+        for (int i = 0; i < numProcesses; i++) if (!finished[i]) unfinished[count++] = i;
+        return Arrays.copyOf(unfinished, count);
+    }
+
+    // DeadlockDetector [processes] [resources] [steps] [maxClaim] | --verify [trials]
+    // Without arguments the comparison runs twice: 256 x 16, where requests rarely collide, and a
+    // contended 64 x 4, where deadlocks do form
+    public static void main(String[] args) {
+        Logger.getLogger(BankersAlgorithm.class.getName()).setLevel(Level.OFF);
+        Logger.getLogger(DeadlockDetector.class.getName()).setLevel(Level.OFF);
+        if (args.length > 0 && args[0].equals("--verify")) {
+            verify(args.length > 1 ? Integer.parseInt(args[1]) : 3000);
+            return;
+        }
+
+        // The classic example: P0 holds R0 and wants R1, P1 holds R1 and wants R2, P2 holds R2 and wants R0;
+        // P3 holds nothing but waits for R0, so it is stuck behind the cycle too
+        DeadlockDetector demo = new DeadlockDetector(4, 3, new int[] { 1, 1, 1 });
+        demo.requestResources(0, new int[] { 1, 0, 0 });
+        demo.requestResources(1, new int[] { 0, 1, 0 });
+        demo.requestResources(2, new int[] { 0, 0, 1 });
+        System.out.println("P0 -> R1: " + demo.requestResources(0, new int[] { 0, 1, 0 }));
+        System.out.println("P1 -> R2: " + demo.requestResources(1, new int[] { 0, 0, 1 }));
+        System.out.println("P3 -> R0: " + demo.requestResources(3, new int[] { 1, 0, 0 }));
+        System.out.println("P2 -> R0: " + demo.requestResources(2, new int[] { 1, 0, 0 }));
+        System.out.println("Deadlocked set: " + Arrays.toString(demo.deadlockedSet()));
+
+        if (args.length == 0) {
+            compare(256, 16, 200_000, 8);
+            compare(64, 4, 200_000, 8);
+            return;
+        }
+        compare(Integer.parseInt(args[0]), args.length > 1 ? Integer.parseInt(args[1]) : 16,
+                args.length > 2 ? Integer.parseInt(args[2]) : 200_000, args.length > 3 ? Integer.parseInt(args[3]) : 8);
+    }
+}
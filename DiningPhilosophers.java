@@ -1,103 +1,381 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.*;
 import java.util.logging.*;
 
 public class DiningPhilosophers {
 
-    private static final int NUM_PHILOSOPHERS = 5;
-    private static final Semaphore[] forks = new Semaphore[NUM_PHILOSOPHERS];  // Semaphores representing forks
+    // ORDERED: lower-numbered fork first; TRY_BACKOFF: tryAcquire both, exponential random back-off;
+    // WAITER: one arbitrator hands out both forks at once; CHANDY_MISRA: dirty/clean fork ownership
+    public enum Strategy { ORDERED, TRY_BACKOFF, WAITER, CHANDY_MISRA }
+
     private static final Logger LOGGER = Logger.getLogger(DiningPhilosophers.class.getName());
+    private static final long MIN_BACKOFF_NANOS = 1_000, MAX_BACKOFF_NANOS = 1_000_000;
+
+    private final int numPhilosophers;
+    private final Strategy strategy;
+    private final long thinkNanos, eatNanos, starvationNanos;
+
+    private final Semaphore[] forks;        // ORDERED, TRY_BACKOFF: semaphores representing forks
+    private final ReentrantLock waiter;     // WAITER
+    private final Condition[] canEat;
+    private final boolean[] forkInUse;
+    private final Fork[] ownedForks;        // CHANDY_MISRA
+
+    // Metrics: shared counters are LongAdders, per-philosopher slots are only written by their owner
+    private final LongAdder meals = new LongAdder();
+    private final LongAdder contention = new LongAdder();   // Blocked acquires, failed tries or waits
+    private final LongAdder starvations = new LongAdder();  // Hungry spells longer than starvationNanos
+    private final long[] mealsBy, maxWaitBy;
+    private volatile boolean running = true;
+    private final CountDownLatch start = new CountDownLatch(1);  // Nobody eats before everyone is seated
+
+    // Results of run()
+    private double mealsPerSecond;
+    private long startupNanos, footprintBytes;
+
+    // Chandy-Misra fork: a dirty fork goes to a hungry neighbour on request and is cleaned on the way;
+    // a clean fork stays with its owner until the owner has eaten with it. Guarded by a ReentrantLock
+    // rather than a monitor, so a waiting virtual thread unmounts instead of pinning its carrier.
+    private static final class Fork {
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition changed = lock.newCondition();
+        int owner;
+        boolean dirty = true, eating;
+    }
+
+    public DiningPhilosophers(int numPhilosophers, Strategy strategy, long thinkNanos, long eatNanos, long starvationNanos) {
+        if (numPhilosophers < 2) throw new IllegalArgumentException("Need at least two philosophers");
+        this.numPhilosophers = numPhilosophers;
+        this.strategy = strategy;
+        this.thinkNanos = thinkNanos;
+        this.eatNanos = eatNanos;
+        this.starvationNanos = starvationNanos;
+        this.mealsBy = new long[numPhilosophers];
+        this.maxWaitBy = new long[numPhilosophers];
 
-    static {
-        for (int i = 0; i < NUM_PHILOSOPHERS; i++) {
+        forks = new Semaphore[numPhilosophers];
+        canEat = new Condition[numPhilosophers];
+        forkInUse = new boolean[numPhilosophers];
+        ownedForks = new Fork[numPhilosophers];
+        waiter = new ReentrantLock();
+        for (int i = 0; i < numPhilosophers; i++) {
             forks[i] = new Semaphore(1);  // Initially, each fork is available
+            canEat[i] = waiter.newCondition();
+            ownedForks[i] = new Fork();
+            // Fork i is shared by philosophers i-1 and i; handing it to the lower id makes the initial
+            // precedence graph acyclic
+            ownedForks[i].owner = Math.min(i, (i + numPhilosophers - 1) % numPhilosophers);
         }
     }
 
-    // Philosopher thread
-    static class Philosopher implements Runnable {
-        private final int id;
+    // Philosopher thread; fork i is philosopher i's left fork and philosopher i-1's right fork
+    class Philosopher implements Runnable {
+        private final int id, left, right;
 
         public Philosopher(int id) {
             this.id = id;
+            this.left = id;
+            this.right = (id + 1) % numPhilosophers;
         }
 
         @Override
         public void run() {
             try {
-                while (true) {
+                start.await();
+                while (running) {
                     think();
+                    long hungry = System.nanoTime();
                     pickUpForks();
+                    long waited = System.nanoTime() - hungry;
+                    if (waited > maxWaitBy[id]) maxWaitBy[id] = waited;
+                    if (waited > starvationNanos) starvations.increment();
                     eat();
                     putDownForks();
+                    mealsBy[id]++;
+                    meals.increment();
                 }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
+            LOGGER.fine(() -> "Philosopher " + id + " ate " + mealsBy[id] + " times.");
         }
 
-        // Simulate thinking
         private void think() throws InterruptedException {
-            LOGGER.info("Philosopher " + id + " is thinking.");
-            Thread.sleep((long) (Math.random() * 1000)); // Thinking time
+            work(thinkNanos);
+        }
+
+        private void eat() throws InterruptedException {
+            work(eatNanos);
         }
 
-        // Pick up forks
         private void pickUpForks() throws InterruptedException {
-            // Philosopher 0 picks the right fork first; others pick the left fork first.
-            if (id == 0) {
-                // Philosopher 0 picks up right fork first (chaining).
-                forks[(id + 1) % NUM_PHILOSOPHERS].acquire();  // Pick up right fork
-                LOGGER.info("Philosopher " + id + " picked up right fork.");
-                forks[id].acquire();  // Pick up left fork
-                LOGGER.info("Philosopher " + id + " picked up left fork.");
-            } else {
-                // Other philosophers pick up left fork first
-                forks[id].acquire();  // Pick up left fork
-                LOGGER.info("Philosopher " + id + " picked up left fork.");
-                forks[(id + 1) % NUM_PHILOSOPHERS].acquire();  // Pick up right fork
-                LOGGER.info("Philosopher " + id + " picked up right fork.");
+            switch (strategy) {
+                case ORDERED:
+                    acquire(forks[Math.min(left, right)]);
+                    acquire(forks[Math.max(left, right)]);
+                    break;
+                case TRY_BACKOFF:
+                    long backoff = MIN_BACKOFF_NANOS;
+                    while (true) {
+                        if (forks[left].tryAcquire()) {
+                            if (forks[right].tryAcquire()) return;
+                            forks[left].release();
+                        }
+                        contention.increment();
+                        LockSupport.parkNanos(1 + ThreadLocalRandom.current().nextLong(backoff));
+                        if (Thread.interrupted()) throw new InterruptedException();
+                        backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+                    }
+                case WAITER:
+                    waiter.lockInterruptibly();
+                    try {
+                        while (forkInUse[left] || forkInUse[right]) {
+                            contention.increment();
+                            canEat[id].await();
+                        }
+                        forkInUse[left] = forkInUse[right] = true;
+                    } finally {
+                        waiter.unlock();
+                    }
+                    break;
+                case CHANDY_MISRA:
+                    chandyMisraPickUp();
+                    break;
             }
         }
 
-        // Simulate eating
-        private void eat() throws InterruptedException {
-            LOGGER.info("Philosopher " + id + " is eating.");
-            Thread.sleep((long) (Math.random() * 1000)); // Eating time
+        private void putDownForks() {
+            switch (strategy) {
+                case ORDERED:
+                case TRY_BACKOFF:
+                    forks[right].release();
+                    forks[left].release();
+                    break;
+                case WAITER:
+                    waiter.lock();
+                    try {
+                        forkInUse[left] = forkInUse[right] = false;
+                        canEat[(id + numPhilosophers - 1) % numPhilosophers].signal();
+                        canEat[right].signal();
+                    } finally {
+                        waiter.unlock();
+                    }
+                    break;
+                case CHANDY_MISRA:
+                    for (Fork fork : new Fork[] { ownedForks[left], ownedForks[right] }) {
+                        fork.lock.lock();
+                        try {
+                            fork.eating = false;
+                            fork.dirty = true;
+                            fork.changed.signalAll();
+                        } finally {
+                            fork.lock.unlock();
+                        }
+                    }
+                    break;
+            }
         }
 
-        // Put down forks
-        private void putDownForks() {
-            // Philosopher 0 puts down left fork first, others put down right fork first
-            if (id == 0) {
-                forks[id].release();  // Put down left fork
-                LOGGER.info("Philosopher " + id + " put down left fork.");
-                forks[(id + 1) % NUM_PHILOSOPHERS].release();  // Put down right fork
-                LOGGER.info("Philosopher " + id + " put down right fork.");
-            } else {
-                forks[(id + 1) % NUM_PHILOSOPHERS].release();  // Put down right fork
-                LOGGER.info("Philosopher " + id + " put down right fork.");
-                forks[id].release();  // Put down left fork
-                LOGGER.info("Philosopher " + id + " put down left fork.");
+        private void acquire(Semaphore fork) throws InterruptedException {
+            if (!fork.tryAcquire()) {
+                contention.increment();
+                fork.acquire();
+            }
+        }
+
+        // Collect both forks, taking dirty ones from neighbours, then start eating only if both are
+        // still ours; a dirty fork of our own can be taken while we wait for the other one
+        private void chandyMisraPickUp() throws InterruptedException {
+            Fork first = ownedForks[Math.min(left, right)], second = ownedForks[Math.max(left, right)];
+            while (true) {
+                take(ownedForks[left]);
+                take(ownedForks[right]);
+                first.lock.lock();
+                second.lock.lock();
+                try {
+                    if (first.owner == id && second.owner == id) {
+                        first.eating = second.eating = true;
+                        first.dirty = second.dirty = false;
+                        return;
+                    }
+                } finally {
+                    second.lock.unlock();
+                    first.lock.unlock();
+                }
+                contention.increment();
+            }
+        }
+
+        private void take(Fork fork) throws InterruptedException {
+            fork.lock.lock();
+            try {
+                while (fork.owner != id && (!fork.dirty || fork.eating)) {
+                    contention.increment();
+                    fork.changed.await();
+                }
+                if (fork.owner != id) {
+                    fork.owner = id;
+                    fork.dirty = false;
+                }
+            } finally {
+                fork.lock.unlock();
             }
         }
     }
 
-    public static void main(String[] args) {
-        // Executor service to manage philosopher threads
-        ExecutorService executor = Executors.newFixedThreadPool(NUM_PHILOSOPHERS);
+    // Think or eat by parking, not spinning, so thousands of philosophers can share a few CPUs
+    private static void work(long nanos) throws InterruptedException {
+        long end = System.nanoTime() + nanos;
+        for (long left = nanos; left > 0; left = end - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+            if (Thread.interrupted()) throw new InterruptedException();
+        }
+        if (Thread.interrupted()) throw new InterruptedException();
+    }
 
-        // Create philosopher threads and submit them to the executor
-        for (int i = 0; i < NUM_PHILOSOPHERS; i++) {
+    // Runs every philosopher as its own task for durationMillis; per-event work only touches counters,
+    // so nothing on the hot path blocks on logging or I/O
+    public void run(long durationMillis, ThreadMode mode) throws InterruptedException {
+        System.gc();
+        long baseline = ThreadMode.residentBytes();
+        long submitted = System.nanoTime();
+        ExecutorService executor = mode.newExecutor(numPhilosophers);
+        for (int i = 0; i < numPhilosophers; i++) {
             executor.submit(new Philosopher(i));
         }
+        startupNanos = System.nanoTime() - submitted;
 
-        // Initiate orderly shutdown after some time (to allow philosophers to eat and think)
-        try {
-            Thread.sleep(10000);  // Let philosophers eat for a while (10 seconds)
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        long started = System.nanoTime();
+        start.countDown();
+        Thread.sleep(durationMillis);
+        footprintBytes = Math.max(0, ThreadMode.residentBytes() - baseline);
+        running = false;
+        executor.shutdownNow();  // Interrupts philosophers blocked on a fork
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        mealsPerSecond = meals.sum() / ((System.nanoTime() - started) / 1e9);
+        LOGGER.fine(() -> strategy + ": " + meals.sum() + " meals by " + numPhilosophers + " philosophers");
+    }
+
+    void printRow() {
+        long minMeals = Long.MAX_VALUE, maxWait = 0;
+        int starved = 0;
+        for (int i = 0; i < numPhilosophers; i++) {
+            minMeals = Math.min(minMeals, mealsBy[i]);
+            maxWait = Math.max(maxWait, maxWaitBy[i]);
+            if (mealsBy[i] == 0) starved++;
         }
+        System.out.printf("| %-12s | %-6d | %-12.0f | %-12d | %-11.2f | %-11d | %-9d | %-8d |\n", strategy, numPhilosophers,
+                mealsPerSecond, contention.sum(), maxWait / 1e6, starvations.sum(), minMeals, starved);
+    }
 
-        executor.shutdownNow();  // Stop all philosophers after the time limit
+    static void printHeader() {
+        System.out.println("\n+--------------+--------+--------------+--------------+-------------+-------------+-----------+----------+");
+        System.out.printf("| %-12s | %-6s | %-12s | %-12s | %-11s | %-11s | %-9s | %-8s |\n", "Strategy", "N", "Meals/s",
+                "Contention", "Max wait ms", "Long waits", "Min meals", "No meals");
+        System.out.println("+--------------+--------+--------------+--------------+-------------+-------------+-----------+----------+");
+    }
+
+    static void printFooter() {
+        System.out.println("+--------------+--------+--------------+--------------+-------------+-------------+-----------+----------+");
+    }
+
+    // Platform vs virtual threads for growing philosopher counts: meals/s, time to start every actor
+    // and resident memory per actor. Each configuration runs in a fresh JVM so that memory freed or
+    // kept by an earlier run does not distort the footprint. Platform runs above maxPlatform are
+    // skipped, since one OS thread per philosopher hits the process thread limit long before virtual
+    // threads run out of anything.
+    static void compareThreadModes(Strategy strategy, int maxActors, int maxPlatform, long durationMillis,
+                                   long thinkNanos, long eatNanos) throws IOException, InterruptedException {
+        String line = "+----------+---------+--------------+------------+------------+----------+";
+        System.out.println("\n" + strategy + ", " + Runtime.getRuntime().availableProcessors() + " CPUs, JDK " + Runtime.version().feature()
+                + (ThreadMode.virtualThreadsAvailable() ? "" : " (no virtual threads on this JVM, platform rows only)"));
+        System.out.println(line);
+        System.out.printf("| %-8s | %-7s | %-12s | %-10s | %-10s | %-8s |\n", "Threads", "N", "Meals/s", "Start ms", "RSS MB", "KB/actor");
+        System.out.println(line);
+        List<Integer> counts = new ArrayList<>();
+        for (int n = 100; n < maxActors; n *= 10) counts.add(n);
+        counts.add(maxActors);
+        String java = ProcessHandle.current().info().command().orElse("java");
+        for (int n : counts) {
+            for (ThreadMode mode : ThreadMode.values()) {
+                if (mode.resolve() != mode) continue;
+                if (mode == ThreadMode.PLATFORM && n > maxPlatform) {
+                    System.out.printf("| %-8s | %-7d | %-12s | %-10s | %-10s | %-8s |\n", mode, n, "skipped", "-", "-", "-");
+                    continue;
+                }
+                Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "DiningPhilosophers",
+                        "--measure", strategy.name(), String.valueOf(n), String.valueOf(durationMillis / 1000.0),
+                        String.valueOf(thinkNanos / 1000), String.valueOf(eatNanos / 1000), "--threads", mode.name())
+                        .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+                String[] result = new String(child.getInputStream().readAllBytes()).trim().split(" ");
+                if (child.waitFor() != 0 || result.length != 3) {
+                    System.out.printf("| %-8s | %-7d | %-12s | %-10s | %-10s | %-8s |\n", mode, n, "failed", "-", "-", "-");
+                    continue;
+                }
+                long footprint = Long.parseLong(result[2]);
+                System.out.printf("| %-8s | %-7d | %-12s | %-10d | %-10.1f | %-8.1f |\n", mode, n, result[0],
+                        Long.parseLong(result[1]) / 1_000_000, footprint / 1048576.0, footprint / 1024.0 / n);
+            }
+        }
+        System.out.println(line);
+    }
+
+    // DiningPhilosophers [strategy|all] [philosophers] [seconds] [thinkMicros] [eatMicros] [starvationMillis]
+    //                    [--threads platform|virtual]
+    // DiningPhilosophers --scale [strategy] [maxPhilosophers] [seconds] [thinkMicros] [eatMicros]
+    //                    [--max-platform n]
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ThreadMode mode = ThreadMode.PLATFORM;
+        boolean scale = false, measure = false;
+        int maxPlatform = 10_000;
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scale":
+                    scale = true;
+                    break;
+                case "--measure":  // One compareThreadModes data point, printed for the parent JVM
+                    measure = true;
+                    break;
+                case "--threads":
+                    mode = ThreadMode.parse(args[++i]);
+                    break;
+                case "--max-platform":
+                    maxPlatform = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    positional.add(args[i]);
+            }
+        }
+        String which = positional.size() > 0 ? positional.get(0).toUpperCase() : (scale ? "WAITER" : "ALL");
+        int numPhilosophers = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : (scale ? 100_000 : 5);
+        long durationMillis = positional.size() > 2 ? (long) (Double.parseDouble(positional.get(2)) * 1000) : 2000;
+        long thinkNanos = positional.size() > 3 ? Long.parseLong(positional.get(3)) * 1000 : (scale ? 1_000_000 : 0);
+        long eatNanos = positional.size() > 4 ? Long.parseLong(positional.get(4)) * 1000 : (scale ? 1_000_000 : 0);
+        long starvationNanos = (positional.size() > 5 ? Long.parseLong(positional.get(5)) : 100) * 1_000_000;
+
+        if (measure) {
+            DiningPhilosophers table = new DiningPhilosophers(numPhilosophers, Strategy.valueOf(which), thinkNanos, eatNanos, starvationNanos);
+            table.run(durationMillis, mode);
+            System.out.printf("%.0f %d %d\n", table.mealsPerSecond, table.startupNanos, table.footprintBytes);
+            return;
+        }
+        if (scale) {
+            compareThreadModes(Strategy.valueOf(which), numPhilosophers, maxPlatform, durationMillis, thinkNanos, eatNanos);
+            return;
+        }
+
+        printHeader();
+        for (Strategy strategy : Strategy.values()) {
+            if (!which.equals("ALL") && !which.equals(strategy.name())) continue;
+            DiningPhilosophers table = new DiningPhilosophers(numPhilosophers, strategy, thinkNanos, eatNanos, starvationNanos);
+            table.run(durationMillis, mode);
+            table.printRow();
+        }
+        printFooter();
     }
 }
\ No newline at end of file
@@ -1,97 +1,267 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.Random;
 import java.util.Scanner;
 
 public class FCFS_Scheduling {
 
-    private static class Process {
-        int id, burstTime, arrivalTime, waitingTime, turnaroundTime, completionTime;
+    // Function to compute completion times, running processes in the given order
+    public static void calculateTimes(ProcessTable processes, int[] order) {
+        long currentTime = 0;
 
-        Process(int id, int burstTime, int arrivalTime) {
-            this.id = id;
-            this.burstTime = burstTime;
-            this.arrivalTime = arrivalTime;
-        }
-    }
-
-    // Function to compute waiting time and turnaround time
-    public static void calculateTimes(Process[] processes) {
-        int currentTime = 0;
-
-        for (Process process : processes) {
+        for (int i : order) {
             // If CPU is idle, jump to process arrival time
-            if (currentTime < process.arrivalTime) {
-                currentTime = process.arrivalTime;
+            if (currentTime < processes.arrival[i]) {
+                currentTime = processes.arrival[i];
             }
 
-            process.completionTime = currentTime + process.burstTime;
-            process.turnaroundTime = process.completionTime - process.arrivalTime;
-            process.waitingTime = process.turnaroundTime - process.burstTime;
-
-            currentTime = process.completionTime;
+            processes.completion[i] = currentTime + processes.burst[i];
+            currentTime = processes.completion[i];
         }
     }
 
     // Function to display results with average TAT and WT
-    public static void displayResults(Process[] processes) {
-        int totalTAT = 0, totalWT = 0;
+    public static void displayResults(ProcessTable processes, int[] order) {
+        long totalTAT = 0, totalWT = 0;
 
         System.out.println("\n--------------------------------------------------");
         System.out.printf("%-10s%-10s%-10s%-10s%-10s%-10s\n", "Process", "AT", "BT", "CT", "TAT", "WT");
         System.out.println("--------------------------------------------------");
 
-        for (Process p : processes) {
-            totalTAT += p.turnaroundTime;
-            totalWT += p.waitingTime;
-            System.out.printf("%-10s%-10d%-10d%-10d%-10d%-10d\n",
-                    "P" + p.id, p.arrivalTime, p.burstTime, p.completionTime, p.turnaroundTime, p.waitingTime);
+        for (int i : order) {
+            totalTAT += processes.turnaround(i);
+            totalWT += processes.waiting(i);
+            System.out.printf("%-10s%-10d%-10d%-10d%-10d%-10d\n", "P" + processes.id[i], processes.arrival[i],
+                    processes.burst[i], processes.completion[i], processes.turnaround(i), processes.waiting(i));
         }
 
-        double avgTAT = (double) totalTAT / processes.length;
-        double avgWT = (double) totalWT / processes.length;
+        double avgTAT = (double) totalTAT / processes.size;
+        double avgWT = (double) totalWT / processes.size;
 
         System.out.println("--------------------------------------------------");
         System.out.printf("Average Turnaround Time: %.2f\n", avgTAT);
         System.out.printf("Average Waiting Time   : %.2f\n", avgWT);
     }
 
-    public static void main(String[] args) {
+    // Online FCFS over jobs in stream order: only the current time, long accumulators and
+    // fixed-size quantile sketches are kept, so an unbounded feed runs in constant memory
+    static final class OnlineFcfs {
+        private long currentTime, jobs, totalTAT, totalWT, maxWT;
+        private final P2Quantile[] waiting = { new P2Quantile(0.5), new P2Quantile(0.9), new P2Quantile(0.99) };
+        private final P2Quantile[] turnaround = { new P2Quantile(0.5), new P2Quantile(0.9), new P2Quantile(0.99) };
+
+        // Returns the job's completion time
+        long accept(long arrival, long burst) {
+            // If CPU is idle, jump to process arrival time
+            if (currentTime < arrival) {
+                currentTime = arrival;
+            }
+            long wt = currentTime - arrival;
+            currentTime += burst;
+
+            jobs++;
+            totalWT += wt;
+            totalTAT += wt + burst;
+            maxWT = Math.max(maxWT, wt);
+            for (P2Quantile q : waiting) q.add(wt);
+            for (P2Quantile q : turnaround) q.add(wt + burst);
+            return currentTime;
+        }
+
+        void printSummary(PrintStream out) {
+            out.println("\n--- Online FCFS Scheduling ---");
+            out.println("--------------------------------------------------");
+            out.printf("Jobs                   : %d\n", jobs);
+            out.printf("Average Turnaround Time: %.2f (p50 %.1f, p90 %.1f, p99 %.1f)\n", jobs == 0 ? 0.0 : (double) totalTAT / jobs,
+                    turnaround[0].value(), turnaround[1].value(), turnaround[2].value());
+            out.printf("Average Waiting Time   : %.2f (p50 %.1f, p90 %.1f, p99 %.1f, max %d)\n", jobs == 0 ? 0.0 : (double) totalWT / jobs,
+                    waiting[0].value(), waiting[1].value(), waiting[2].value(), maxWT);
+        }
+    }
+
+    // P-square streaming quantile estimate (Jain & Chlamtac): five markers whose heights are adjusted
+    // with piecewise-parabolic interpolation, O(1) memory and time per value
+    static final class P2Quantile {
+        private final double p;
+        private final double[] height = new double[5], desired = new double[5], increment;
+        private final long[] position = new long[5];
+        private int count;
+
+        P2Quantile(double p) {
+            this.p = p;
+            increment = new double[] { 0, p / 2, p, (1 + p) / 2, 1 };
+        }
+
+        void add(double x) {
+            if (count < 5) {
+                height[count++] = x;
+                if (count == 5) {
+                    Arrays.sort(height);
+                    for (int i = 0; i < 5; i++) position[i] = i + 1;
+                    desired[0] = 1;
+                    desired[1] = 1 + 2 * p;
+                    desired[2] = 1 + 4 * p;
+                    desired[3] = 3 + 2 * p;
+                    desired[4] = 5;
+                }
+                return;
+            }
+
+            // Find the cell containing x, extending the extremes if needed
+            int k;
+            if (x < height[0]) {
+                height[0] = x;
+                k = 0;
+            } else if (x >= height[4]) {
+                height[4] = x;
+                k = 3;
+            } else {
+                k = 0;
+                while (x >= height[k + 1]) k++;
+            }
+            for (int i = k + 1; i < 5; i++) position[i]++;
+            for (int i = 0; i < 5; i++) desired[i] += increment[i];
+
+            // Move the middle markers towards their desired positions
+            for (int i = 1; i <= 3; i++) {
+                double d = desired[i] - position[i];
+                if ((d >= 1 && position[i + 1] - position[i] > 1) || (d <= -1 && position[i - 1] - position[i] < -1)) {
+                    int s = d >= 0 ? 1 : -1;
+                    double candidate = parabolic(i, s);
+                    height[i] = height[i - 1] < candidate && candidate < height[i + 1] ? candidate : linear(i, s);
+                    position[i] += s;
+                }
+            }
+        }
+
+        private double parabolic(int i, int s) {
+            double left = position[i] - position[i - 1], right = position[i + 1] - position[i];
+            return height[i] + s / (double) (position[i + 1] - position[i - 1])
+                    * ((left + s) * (height[i + 1] - height[i]) / right + (right - s) * (height[i] - height[i - 1]) / left);
+        }
+
+        private double linear(int i, int s) {
+            return height[i] + s * (height[i + s] - height[i]) / (position[i + s] - position[i]);
+        }
+
+        double value() {
+            if (count >= 5) return height[2];
+            if (count == 0) return 0;
+            double[] seen = Arrays.copyOf(height, count);
+            Arrays.sort(seen);
+            return seen[Math.max(0, (int) Math.ceil(p * count) - 1)];
+        }
+    }
+
+    // Stream mode: FCFS_Scheduling --stream [--summary]
+    // Reads "id,arrival,burst[,priority]" lines (commas or whitespace) from stdin in arrival order and
+    // writes one CSV completion record per job as soon as it is scheduled. Lines that are not at least
+    // three non-negative ints, such as headers, are skipped and counted.
+    private static void runStream(boolean summaryOnly) throws IOException {
+        OnlineFcfs fcfs = new OnlineFcfs();
+        long skipped = 0;
+        long[] fields = new long[3];
+        int fieldCount = 0;
+        long value = 0;
+        boolean inNumber = false, badLine = false;
+        InputStream in = System.in;
+        byte[] buffer = new byte[1 << 16];
+
+        try (JobTrace.ResultWriter writer = new JobTrace.ResultWriter(System.out, JobTrace.Format.CSV, !summaryOnly)) {
+            while (true) {
+                writer.flush();  // The next read may block on a live feed
+                int read = in.read(buffer);
+                for (int i = 0; i < Math.max(read, 1); i++) {
+                    int b = read < 0 ? '\n' : buffer[i];
+                    if (b >= '0' && b <= '9') {
+                        value = value * 10 + (b - '0');
+                        inNumber = true;
+                        if (value > Integer.MAX_VALUE) {
+                            badLine = true;
+                            value = 0;
+                        }
+                        continue;
+                    }
+                    if (inNumber) {
+                        if (fieldCount < 3) fields[fieldCount] = value;
+                        fieldCount++;
+                        value = 0;
+                        inNumber = false;
+                    }
+                    if (b == '\n') {
+                        if (fieldCount >= 3 && !badLine) {
+                            writer.add((int) fields[0], (int) fields[1], (int) fields[2], fcfs.accept(fields[1], fields[2]));
+                        } else if (fieldCount > 0 || badLine) {
+                            skipped++;
+                        }
+                        fieldCount = 0;
+                        badLine = false;
+                    } else if (b != ',' && b != ' ' && b != '\t' && b != '\r') {
+                        badLine = true;  // Header text or a negative number
+                    }
+                }
+                if (read < 0) break;
+            }
+            writer.flush();
+            PrintStream summary = writer.summaryStream();
+            fcfs.printSummary(summary);
+            if (skipped > 0) summary.printf("Skipped lines          : %d\n", skipped);
+        }
+    }
+
+    // Trace mode: FCFS_Scheduling <trace> [csv|binary] [--out <file> [csv|binary]] [--summary]
+    private static void runTrace(JobTrace.Options options) throws IOException {
+        ProcessTable processes = ProcessTable.of(options.load());
+        calculateTimes(processes, processes.arrivalOrder());
+
+        try (JobTrace.ResultWriter writer = options.writer()) {
+            writer.addAll(processes);
+            writer.printSummary("FCFS Scheduling - " + options.trace.getFileName());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--stream")) {
+            runStream(args.length > 1 && args[1].equals("--summary"));
+            return;
+        }
+        if (args.length > 0) {
+            runTrace(new JobTrace.Options(args));
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         Random random = new Random();
 
         System.out.print("Enter number of processes: ");
         int n = scanner.nextInt();
-        Process[] processes = new Process[n];
+        ProcessTable processes = new ProcessTable(n);
 
         System.out.println("Enter Burst Time for each process:");
         for (int i = 0; i < n; i++) {
             System.out.print("P" + (i + 1) + " Burst Time: ");
-            int bt = scanner.nextInt();
-            int at = random.nextInt(10); // Random Arrival Time (0-9) for Case 1
-            processes[i] = new Process(i + 1, bt, at);
+            processes.burst[i] = scanner.nextInt();
+            processes.arrival[i] = random.nextInt(10); // Random Arrival Time (0-9) for Case 1
         }
 
-        // Sort processes by Arrival Time
-        Arrays.sort(processes, Comparator.comparingInt(p -> p.arrivalTime));
+        // Order processes by Arrival Time
+        int[] order = processes.arrivalOrder();
 
         // Calculate and display FCFS with arrival time
         System.out.println("\n--- FCFS Scheduling WITH Arrival Time ---");
-        calculateTimes(processes);
-        displayResults(processes);
-
-        // Reset arrival time for case 2 (all AT = 0)
-        for (Process p : processes) {
-            p.arrivalTime = 0;
-        }
+        calculateTimes(processes, order);
+        displayResults(processes, order);
 
-        // Sort processes by original ID
-        Arrays.sort(processes, Comparator.comparingInt(p -> p.id));
+        // Case 2: the same processes with all AT = 0, in original ID order
+        ProcessTable zeroArrival = processes.withArrivals(new int[n]);
+        order = zeroArrival.arrivalOrder();
 
         // Calculate and display FCFS without arrival time
         System.out.println("\n--- FCFS Scheduling WITHOUT Arrival Time (AT = 0) ---");
-        calculateTimes(processes);
-        displayResults(processes);
+        calculateTimes(zeroArrival, order);
+        displayResults(zeroArrival, order);
 
         scanner.close();
     }
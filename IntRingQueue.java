@@ -0,0 +1,35 @@
+// Fixed-capacity circular FIFO of ints (process indices, frame slots); never allocates after construction
+class IntRingQueue {
+    private final int[] items;
+    private int head, size;
+
+    IntRingQueue(int capacity) {
+        items = new int[Math.max(1, capacity)];
+    }
+
+    void add(int item) {
+        if (size == items.length) throw new IllegalStateException("Queue full");
+        items[(head + size++) % items.length] = item;
+    }
+
+    int poll() {
+        if (size == 0) throw new IllegalStateException("Queue empty");
+        int item = items[head];
+        head = (head + 1) % items.length;
+        size--;
+        return item;
+    }
+
+    // i-th item from the head
+    int get(int i) {
+        return items[(head + i) % items.length];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
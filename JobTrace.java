@@ -0,0 +1,271 @@
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// Job trace held as struct-of-arrays columns (id, arrival, burst, priority), loaded through the
+// streaming PageTrace parser so even very large traces are read one mapped window at a time.
+// CSV: exactly one "id,arrival,burst,priority" record per line; blank lines are skipped, and so is a
+// first line with a non-numeric field (a header). Any other malformed line is reported by number.
+// BINARY: four little-endian int32 per job in the same order.
+public final class JobTrace {
+
+    public enum Format { CSV, BINARY }
+
+    final int size;
+    final int[] id, arrival, burst, priority;
+
+    private JobTrace(int size, int[] id, int[] arrival, int[] burst, int[] priority) {
+        this.size = size;
+        this.id = id;
+        this.arrival = arrival;
+        this.burst = burst;
+        this.priority = priority;
+    }
+
+    public static JobTrace load(Path path, Format format) throws IOException {
+        try (PageTrace trace = PageTrace.open(path, format == Format.BINARY ? PageTrace.Format.BINARY : PageTrace.Format.TEXT)) {
+            // Text records take at least 8 bytes ("1,0,1,0\n"), binary records exactly 16
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, trace.maxReferences() / 4 + 1);
+            Columns columns = new Columns(capacity);
+
+            int[] record = new int[4];
+            if (format == Format.BINARY) {
+                while (trace.hasNext()) {
+                    for (int f = 0; f < 4; f++) {
+                        if (!trace.hasNext()) throw new IllegalArgumentException("Truncated record for job " + record[0]);
+                        record[f] = trace.next();
+                    }
+                    columns.add(record, "job " + record[0]);
+                }
+            } else {
+                for (long line = 1; ; line++) {
+                    int fields = trace.readLine(record);
+                    if (fields == -1) break;
+                    if (fields == 0) continue;
+                    if (fields == PageTrace.NOT_NUMERIC) {
+                        if (line == 1) continue;  // Header
+                        throw new IllegalArgumentException("Line " + line + ": fields must be integers");
+                    }
+                    if (fields != 4) throw new IllegalArgumentException("Line " + line + ": expected 4 fields, found " + fields);
+                    columns.add(record, "line " + line);
+                }
+            }
+            return columns.toTrace();
+        }
+    }
+
+    // Growable id/arrival/burst/priority columns used while loading
+    private static final class Columns {
+        private final int capacity;
+        private int[] id, arrival, burst, priority;
+        private int count;
+
+        Columns(int capacity) {
+            this.capacity = capacity;
+            id = new int[Math.min(capacity, 1 << 16)];
+            arrival = new int[id.length];
+            burst = new int[id.length];
+            priority = new int[id.length];
+        }
+
+        void add(int[] record, String where) {
+            if (record[1] < 0 || record[2] <= 0) throw new IllegalArgumentException("Invalid arrival or burst at " + where);
+            if (count == id.length) {
+                int grown = (int) Math.min(capacity, (long) count * 2);
+                id = Arrays.copyOf(id, grown);
+                arrival = Arrays.copyOf(arrival, grown);
+                burst = Arrays.copyOf(burst, grown);
+                priority = Arrays.copyOf(priority, grown);
+            }
+            id[count] = record[0];
+            arrival[count] = record[1];
+            burst[count] = record[2];
+            priority[count] = record[3];
+            count++;
+        }
+
+        // Trimmed so the columns can be wrapped directly by a ProcessTable
+        JobTrace toTrace() {
+            if (count == id.length) return new JobTrace(count, id, arrival, burst, priority);
+            return new JobTrace(count, Arrays.copyOf(id, count), Arrays.copyOf(arrival, count),
+                    Arrays.copyOf(burst, count), Arrays.copyOf(priority, count));
+        }
+    }
+
+    // Command-line options shared by the scheduler mains:
+    // <trace> [csv|binary] [--out <file> [csv|binary]] [--summary], plus scheduler-specific flags
+    static final class Options {
+        final String[] args;
+        final Path trace, out;
+        final Format format, outFormat;
+        final boolean summary;
+
+        Options(String[] args) {
+            this.args = args;
+            trace = Paths.get(args[0]);
+            format = formatOf(args, 1, args[0]);
+            int at = indexOf(args, "--out");
+            out = at >= 0 && at + 1 < args.length ? Paths.get(args[at + 1]) : null;
+            outFormat = out == null ? Format.CSV : formatOf(args, at + 2, args[at + 1]);
+            summary = indexOf(args, "--summary") >= 0;
+        }
+
+        boolean flag(String name) {
+            return indexOf(args, name) >= 0;
+        }
+
+        int value(String name, int defaultValue) {
+            int at = indexOf(args, name);
+            return at >= 0 && at + 1 < args.length ? Integer.parseInt(args[at + 1]) : defaultValue;
+        }
+
+        JobTrace load() throws IOException {
+            return JobTrace.load(trace, format);
+        }
+
+        // Rows go to the --out file, or to stdout as CSV unless --summary is given
+        ResultWriter writer() throws IOException {
+            if (out != null) return new ResultWriter(new FileOutputStream(out.toFile()), outFormat, true);
+            return new ResultWriter(System.out, Format.CSV, !summary);
+        }
+
+        private static Format formatOf(String[] args, int at, String fileName) {
+            if (at < args.length && args[at].equalsIgnoreCase("binary")) return Format.BINARY;
+            if (at < args.length && args[at].equalsIgnoreCase("csv")) return Format.CSV;
+            return fileName.endsWith(".bin") ? Format.BINARY : Format.CSV;
+        }
+
+        private static int indexOf(String[] args, String name) {
+            for (int i = 0; i < args.length; i++) if (args[i].equals(name)) return i;
+            return -1;
+        }
+    }
+
+    // Buffered per-job result output that also accumulates the summary.
+    // CSV: "id,arrival,burst,completion,turnaround,waiting" lines after a header.
+    // BINARY: id, arrival, burst as little-endian int32, then completion, turnaround, waiting as int64.
+    static final class ResultWriter implements Closeable {
+        private final OutputStream out;
+        private final Format format;
+        private final boolean rows;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position;
+        private long jobs, totalTAT, totalWT, makespan;
+
+        ResultWriter(OutputStream out, Format format, boolean rows) throws IOException {
+            this.out = out;
+            this.format = format;
+            this.rows = rows;
+            if (rows && format == Format.CSV) {
+                for (byte b : "id,arrival,burst,completion,turnaround,waiting\n".getBytes()) put(b);
+            }
+        }
+
+        void add(int id, int arrival, int burst, long completion) throws IOException {
+            long turnaround = completion - arrival;
+            long waiting = turnaround - burst;
+            jobs++;
+            totalTAT += turnaround;
+            totalWT += waiting;
+            makespan = Math.max(makespan, completion);
+            if (!rows) return;
+
+            if (format == Format.BINARY) {
+                putLittleEndian(id, 4);
+                putLittleEndian(arrival, 4);
+                putLittleEndian(burst, 4);
+                putLittleEndian(completion, 8);
+                putLittleEndian(turnaround, 8);
+                putLittleEndian(waiting, 8);
+            } else {
+                putDecimal(id);
+                put((byte) ',');
+                putDecimal(arrival);
+                put((byte) ',');
+                putDecimal(burst);
+                put((byte) ',');
+                putDecimal(completion);
+                put((byte) ',');
+                putDecimal(turnaround);
+                put((byte) ',');
+                putDecimal(waiting);
+                put((byte) '\n');
+            }
+        }
+
+        // Every row of a scheduled table, in row order; the long completion column is passed through as is
+        void addAll(ProcessTable table) throws IOException {
+            for (int i = 0; i < table.size; i++) add(table.id[i], table.arrival[i], table.burst[i], table.completion[i]);
+        }
+
+        // Push buffered rows out, e.g. before blocking on a live input feed
+        void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        boolean rowsOnStdout() {
+            return rows && out == System.out;
+        }
+
+        // Summary goes to stdout unless the rows are already there
+        PrintStream summaryStream() {
+            return rowsOnStdout() ? System.err : System.out;
+        }
+
+        void printSummary(String title) throws IOException {
+            flush();
+            PrintStream summary = summaryStream();
+            summary.println("\n--- " + title + " ---");
+            summary.printf("Jobs                    : %d\n", jobs);
+            summary.printf("Makespan                : %d\n", makespan);
+            summary.printf("Average Turnaround Time : %.2f\n", jobs == 0 ? 0.0 : (double) totalTAT / jobs);
+            summary.printf("Average Waiting Time    : %.2f\n", jobs == 0 ? 0.0 : (double) totalWT / jobs);
+        }
+
+        private void put(byte b) throws IOException {
+            if (position == buffer.length) flushBuffer();
+            buffer[position++] = b;
+        }
+
+        private void putLittleEndian(long value, int bytes) throws IOException {
+            if (position + bytes > buffer.length) flushBuffer();
+            for (int i = 0; i < bytes; i++) buffer[position++] = (byte) (value >>> (8 * i));
+        }
+
+        private void putDecimal(long value) throws IOException {
+            if (position + 20 > buffer.length) flushBuffer();
+            if (value < 0) {
+                buffer[position++] = '-';
+                value = -value;
+            }
+            int start = position;
+            do {
+                buffer[position++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            for (int i = start, j = position - 1; i < j; i++, j--) {
+                byte t = buffer[i];
+                buffer[i] = buffer[j];
+                buffer[j] = t;
+            }
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flushBuffer();
+            out.flush();
+            if (out != System.out) out.close();
+        }
+    }
+}
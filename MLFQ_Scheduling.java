@@ -0,0 +1,222 @@
+import java.util.*;
+
+// Multilevel feedback queue built from the Round Robin pieces: one IntRingQueue per level, Round Robin
+// inside each level, and a last level that runs FCFS when its quantum is 0. A job that uses up its
+// level's quantum (across preemptions) moves down one level; every boostInterval time units all jobs
+// go back to the top. Arrivals preempt jobs running on lower levels. Time jumps from event to event.
+public class MLFQ_Scheduling {
+
+    private static final int BUCKETS = 33;  // log2 buckets: 0, 1, [2,4), [4,8), ...
+
+    public static final class Stats {
+        long[][] queueLength;   // Per level: time spent at each log2 queue length
+        long[][] responseTime;  // Per level: dispatches by log2 wait since the job last became ready
+        long[] dispatches;      // Per level
+        long[] firstResponse;   // Per process: first dispatch - arrival
+        long makespan;
+    }
+
+    static int bucket(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    public static Stats mlfq(ProcessTable processes, int[] quanta, int boostInterval) {
+        int levels = quanta.length;
+        if (levels == 0) throw new IllegalArgumentException("At least one level is required");
+        for (int l = 0; l < levels; l++) {
+            if (quanta[l] < 0 || (quanta[l] == 0 && l != levels - 1))
+                throw new IllegalArgumentException("Only the last level may have quantum 0 (FCFS)");
+        }
+        processes.reset();
+        int n = processes.size;
+        int[] order = processes.arrivalOrder();
+        int[] remaining = processes.remaining;
+
+        IntRingQueue[] queues = new IntRingQueue[levels];
+        for (int l = 0; l < levels; l++) queues[l] = new IntRingQueue(n);
+        int[] level = new int[n], used = new int[n];
+        long[] readySince = new long[n];
+        Stats stats = new Stats();
+        stats.queueLength = new long[levels][BUCKETS];
+        stats.responseTime = new long[levels][BUCKETS];
+        stats.dispatches = new long[levels];
+        stats.firstResponse = new long[n];
+        Arrays.fill(stats.firstResponse, -1);
+
+        long time = 0, nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE;
+        int next = 0, completed = 0, queued = 0, running = -1;
+
+        while (completed < n) {
+            // If CPU is idle, jump to the next arrival
+            if (running == -1 && queued == 0 && time < processes.arrival[order[next]]) {
+                recordLengths(stats, queues, processes.arrival[order[next]] - time);
+                time = processes.arrival[order[next]];
+            }
+            for (; next < n && processes.arrival[order[next]] <= time; next++, queued++) {
+                enqueue(queues, order[next], 0, processes.arrival[order[next]], level, readySince);
+            }
+
+            // Priority boost: the running job and every queued job return to the top level, in level order
+            if (nextBoost <= time) {
+                for (int l = 1; l < levels; l++) {
+                    for (int k = queues[l].size(); k > 0; k--) {
+                        int i = queues[l].poll();
+                        level[i] = used[i] = 0;
+                        queues[0].add(i);
+                    }
+                }
+                for (int k = queues[0].size(); k > 0; k--) used[queues[0].get(k - 1)] = 0;
+                if (running != -1) level[running] = used[running] = 0;
+                nextBoost = (time / boostInterval + 1) * boostInterval;
+            }
+
+            int top = 0;
+            while (top < levels && queues[top].isEmpty()) top++;
+            if (running != -1 && top < level[running]) {
+                // Preempted by a higher level; keeps what it has used of its quantum
+                enqueue(queues, running, level[running], time, level, readySince);
+                queued++;
+                running = -1;
+            }
+            if (running == -1) {
+                running = queues[top].poll();
+                queued--;
+                stats.dispatches[top]++;
+                stats.responseTime[top][bucket(time - readySince[running])]++;
+                if (stats.firstResponse[running] < 0) stats.firstResponse[running] = time - processes.arrival[running];
+            }
+
+            // Run until the slice ends, or until an arrival / boost may preempt it
+            int quantum = quanta[level[running]];
+            long end = time + (quantum == 0 ? remaining[running] : Math.min(remaining[running], quantum - used[running]));
+            if (level[running] > 0 && next < n) end = Math.min(end, processes.arrival[order[next]]);
+            end = Math.min(end, nextBoost);
+
+            // Admit arrivals as the slice runs, sampling the queue lengths up to each one. They join
+            // before the job whose slice ends, as in RoundRobin_Scheduling
+            long sampled = time;
+            for (; next < n && processes.arrival[order[next]] <= end; next++, queued++) {
+                long arrival = processes.arrival[order[next]];
+                recordLengths(stats, queues, arrival - sampled);
+                sampled = arrival;
+                enqueue(queues, order[next], 0, arrival, level, readySince);
+            }
+            recordLengths(stats, queues, end - sampled);
+            remaining[running] -= (int) (end - time);
+            used[running] += (int) (end - time);
+            time = end;
+
+            if (remaining[running] == 0) {
+                processes.completion[running] = time;
+                completed++;
+                running = -1;
+            } else if (quantum != 0 && used[running] >= quantum) {
+                used[running] = 0;
+                enqueue(queues, running, Math.min(level[running] + 1, levels - 1), time, level, readySince);
+                queued++;
+                running = -1;
+            }
+        }
+        stats.makespan = time;
+        return stats;
+    }
+
+    private static void enqueue(IntRingQueue[] queues, int i, int toLevel, long time, int[] level, long[] readySince) {
+        level[i] = toLevel;
+        readySince[i] = time;
+        queues[toLevel].add(i);
+    }
+
+    // Time-weighted queue lengths: every level's current length held for duration
+    private static void recordLengths(Stats stats, IntRingQueue[] queues, long duration) {
+        if (duration <= 0) return;
+        for (int l = 0; l < queues.length; l++) stats.queueLength[l][bucket(queues[l].size())] += duration;
+    }
+
+    private static String range(int b) {
+        if (b <= 1) return String.valueOf(b);
+        return "[" + (1L << (b - 1)) + "," + (1L << b) + ")";
+    }
+
+    public static void displayHistograms(Stats stats, int[] quanta) {
+        for (int l = 0; l < quanta.length; l++) {
+            long totalTime = 0;
+            for (long t : stats.queueLength[l]) totalTime += t;
+            System.out.printf("\nLevel %d (quantum %s, %d dispatches)\n", l, quanta[l] == 0 ? "FCFS" : String.valueOf(quanta[l]), stats.dispatches[l]);
+            System.out.printf("  %-16s %-12s %-12s\n", "Bucket", "Queue Len %", "Waits");
+            for (int b = 0; b < BUCKETS; b++) {
+                if (stats.queueLength[l][b] == 0 && stats.responseTime[l][b] == 0) continue;
+                System.out.printf("  %-16s %-12.2f %-12d\n", range(b),
+                        totalTime == 0 ? 0.0 : 100.0 * stats.queueLength[l][b] / totalTime, stats.responseTime[l][b]);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        ProcessTable processes;
+        int[] quanta;
+        int boostInterval;
+
+        if (args.length > 0) {
+            // Generated mix: 80% short interactive bursts, 20% long batch jobs, about 75% CPU load
+            int n = Integer.parseInt(args[0]);
+            quanta = new int[] { 4, 16, 64, 0 };
+            boostInterval = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            Random random = new Random(42);
+            processes = new ProcessTable(n);
+            for (int i = 0; i < n; i++) {
+                processes.burst[i] = random.nextInt(5) == 0 ? 100 + random.nextInt(900) : 1 + random.nextInt(10);
+                processes.arrival[i] = random.nextInt((int) Math.min(Integer.MAX_VALUE, Math.max(1, (long) n * 150)));
+            }
+        } else {
+            Scanner sc = new Scanner(System.in);
+            System.out.print("Enter number of processes: ");
+            int n = sc.nextInt();
+            processes = new ProcessTable(n);
+
+            for (int i = 0; i < n; i++) {
+                System.out.println("\nEnter details for Process " + (i + 1));
+                System.out.print("Arrival Time: ");
+                processes.arrival[i] = sc.nextInt();
+                System.out.print("Burst Time: ");
+                processes.burst[i] = sc.nextInt();
+            }
+
+            System.out.print("\nEnter number of levels: ");
+            quanta = new int[sc.nextInt()];
+            for (int l = 0; l < quanta.length; l++) {
+                System.out.print("Time Quantum for level " + l + (l == quanta.length - 1 ? " (0 = FCFS): " : ": "));
+                quanta[l] = sc.nextInt();
+            }
+            System.out.print("Boost interval (0 = never): ");
+            boostInterval = sc.nextInt();
+        }
+
+        Stats stats = mlfq(processes, quanta, boostInterval);
+
+        long totalWT = 0, totalTAT = 0, totalRT = 0;
+        for (int i = 0; i < processes.size; i++) {
+            totalWT += processes.waiting(i);
+            totalTAT += processes.turnaround(i);
+            totalRT += stats.firstResponse[i];
+        }
+
+        if (processes.size <= 50) {
+            System.out.println("\n+---------+------------+------------+--------------+----------------+");
+            System.out.printf("| %-7s | %-10s | %-10s | %-12s | %-14s |\n", "Process", "Arrival", "Burst Time", "Waiting Time", "Turnaround Time");
+            System.out.println("+---------+------------+------------+--------------+----------------+");
+            for (int i = 0; i < processes.size; i++) {
+                System.out.printf("| %-7s | %-10d | %-10d | %-12d | %-14d |\n", "P" + processes.id[i], processes.arrival[i],
+                        processes.burst[i], processes.waiting(i), processes.turnaround(i));
+            }
+            System.out.println("+---------+------------+------------+--------------+----------------+");
+        }
+
+        int n = Math.max(1, processes.size);
+        System.out.printf("\nAverage Waiting Time    : %.2f\n", (double) totalWT / n);
+        System.out.printf("Average Turnaround Time : %.2f\n", (double) totalTAT / n);
+        System.out.printf("Average Response Time   : %.2f\n", (double) totalRT / n);
+        System.out.printf("Makespan                : %d\n", stats.makespan);
+        displayHistograms(stats, quanta);
+    }
+}
@@ -0,0 +1,330 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// Event-driven simulation of FCFS, SJF, SRTF, Priority and Round Robin on M processors.
+// Time jumps between arrivals and slice/burst ends, so cost is O((n + context switches) log n)
+// regardless of burst length. Ready jobs live either in one global queue or in per-core queues
+// where idle cores steal from the longest queue.
+public class MultiCpuSimulator {
+
+    public enum Policy { FCFS, SJF, SRTF, PRIORITY, RR }
+
+    public enum QueueMode { GLOBAL, PER_CORE }
+
+    private static final int CORE_BITS = 12;  // Event = time << CORE_BITS | core
+    private static final long NONE = Long.MAX_VALUE;
+
+    public static final class Result {
+        long makespan;
+        long[] busy;             // Busy time per core
+        long[] completion;       // Per job, in input order
+        double avgWT, avgTAT;
+        long p50WT, p50TAT, p99WT, p99TAT;
+    }
+
+    // The input columns are only read, so concurrent simulations may share one workload
+    public static Result simulate(int[] arrival, int[] burst, int[] priority, int cpus,
+                                  Policy policy, QueueMode mode, int quantum) {
+        int n = arrival.length;
+        if (cpus <= 0 || cpus >= 1 << CORE_BITS) throw new IllegalArgumentException("Invalid CPU count");
+        if (policy == Policy.RR && quantum <= 0) throw new IllegalArgumentException("Time quantum must be positive");
+
+        // Job indices sorted by arrival time, ties by input order
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = ((long) arrival[i] << 32) | i;
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        int[] rank = new int[n];  // Position in arrival order, used as the FIFO tie-breaker
+        for (int r = 0; r < n; r++) {
+            order[r] = (int) keys[r];
+            rank[order[r]] = r;
+        }
+
+        int queues = mode == QueueMode.GLOBAL ? 1 : cpus;
+        JobHeap[] ready = new JobHeap[queues];
+        for (int q = 0; q < queues; q++) ready[q] = new JobHeap();
+
+        long[] remaining = new long[n];
+        for (int i = 0; i < n; i++) remaining[i] = burst[i];
+        long[] completion = new long[n];
+        int[] running = new int[cpus];
+        long[] started = new long[cpus], sliceEnd = new long[cpus], busy = new long[cpus];
+        Arrays.fill(running, -1);
+        LongHeap events = new LongHeap();
+        int[] expiredJob = new int[cpus], expiredCore = new int[cpus];
+        Random placement = new Random(n);
+
+        long time = 0, sequence = 0;
+        int next = 0, completed = 0, queued = 0;
+
+        while (completed < n) {
+            // Advance to the next arrival or slice end
+            while (events.size() > 0 && sliceEnd[(int) (events.peek() & ((1 << CORE_BITS) - 1))] != events.peek() >>> CORE_BITS)
+                events.poll();  // Stale event of a preempted job
+            long nextEvent = events.size() > 0 ? events.peek() >>> CORE_BITS : NONE;
+            long nextArrival = next < n ? arrival[order[next]] : NONE;
+            time = Math.min(nextEvent, nextArrival);
+
+            // Retire every core whose slice or burst ends now
+            int expiredCount = 0;
+            boolean arrived = false;
+            while (events.size() > 0 && events.peek() >>> CORE_BITS == time) {
+                int core = (int) (events.poll() & ((1 << CORE_BITS) - 1));
+                if (sliceEnd[core] != time) continue;
+                int job = running[core];
+                remaining[job] -= time - started[core];
+                busy[core] += time - started[core];
+                running[core] = -1;
+                sliceEnd[core] = NONE;
+                if (remaining[job] == 0) {
+                    completion[job] = time;
+                    completed++;
+                } else {
+                    expiredJob[expiredCount] = job;
+                    expiredCore[expiredCount++] = core;
+                }
+            }
+
+            // Arrivals join before the jobs whose slices just ended, as in RoundRobin_Scheduling
+            while (next < n && arrival[order[next]] <= time) {
+                int job = order[next++];
+                int q = 0;
+                if (queues > 1) {
+                    // Power of two choices: the shorter of two random queues
+                    int a = placement.nextInt(queues), b = placement.nextInt(queues);
+                    q = ready[a].size() <= ready[b].size() ? a : b;
+                }
+                ready[q].add(job, key(policy, job, burst, priority, remaining, rank, sequence++));
+                queued++;
+                arrived = true;
+            }
+            for (int e = 0; e < expiredCount; e++) {
+                int job = expiredJob[e];
+                ready[queues > 1 ? expiredCore[e] : 0].add(job, key(policy, job, burst, priority, remaining, rank, sequence++));
+                queued++;
+            }
+
+            // Dispatch idle cores, stealing from the longest queue when their own is empty
+            for (int core = 0; core < cpus && queued > 0; core++) {
+                if (running[core] != -1) continue;
+                JobHeap source = ready[queues > 1 ? core : 0];
+                if (source.size() == 0) {
+                    for (JobHeap victim : ready) if (victim.size() > source.size()) source = victim;
+                }
+                queued--;
+                dispatch(core, source.poll(), time, policy, quantum, remaining, running, started, sliceEnd, events);
+            }
+
+            // SRTF: arrivals shorter than a running job's remaining time preempt it. With a global queue
+            // the victim is the core with the most time left; per-core queues only compete locally.
+            while (policy == Policy.SRTF && arrived && queued > 0) {
+                boolean preempted = false;
+                for (int q = 0; q < queues; q++) {
+                    if (ready[q].size() == 0) continue;
+                    int victim = -1;
+                    long victimLeft = -1;
+                    for (int core = queues > 1 ? q : 0; core < (queues > 1 ? q + 1 : cpus); core++) {
+                        long left = remaining[running[core]] - (time - started[core]);
+                        if (left > victimLeft) {
+                            victimLeft = left;
+                            victim = core;
+                        }
+                    }
+                    if (victim == -1 || ready[q].peekKey() >>> 32 >= victimLeft) continue;
+
+                    int job = running[victim];
+                    remaining[job] = victimLeft;
+                    busy[victim] += time - started[victim];
+                    ready[q].add(job, (victimLeft << 32) | rank[job]);
+                    dispatch(victim, ready[q].poll(), time, policy, quantum, remaining, running, started, sliceEnd, events);
+                    preempted = true;
+                }
+                if (!preempted) break;
+            }
+        }
+
+        Result result = new Result();
+        result.completion = completion;
+        result.busy = busy;
+        long[] waits = new long[n], turnarounds = new long[n];
+        double totalWT = 0, totalTAT = 0;
+        for (int i = 0; i < n; i++) {
+            turnarounds[i] = completion[i] - arrival[i];
+            waits[i] = turnarounds[i] - burst[i];
+            totalWT += waits[i];
+            totalTAT += turnarounds[i];
+            result.makespan = Math.max(result.makespan, completion[i]);
+        }
+        if (n > 0) {
+            Arrays.sort(waits);
+            Arrays.sort(turnarounds);
+            int p50 = (int) Math.ceil(n * 0.5) - 1, p99 = (int) Math.ceil(n * 0.99) - 1;
+            result.avgWT = totalWT / n;
+            result.avgTAT = totalTAT / n;
+            result.p50WT = waits[p50];
+            result.p50TAT = turnarounds[p50];
+            result.p99WT = waits[p99];
+            result.p99TAT = turnarounds[p99];
+        }
+        return result;
+    }
+
+    // Same simulation over a ProcessTable; completion times are also written to its completion column
+    public static Result simulate(ProcessTable processes, int cpus, Policy policy, QueueMode mode, int quantum) {
+        processes.reset();
+        Result result = simulate(processes.arrival, processes.burst, processes.priority, cpus, policy, mode, quantum);
+        for (int i = 0; i < processes.size; i++) processes.completion[i] = result.completion[i];
+        return result;
+    }
+
+    private static void dispatch(int core, int job, long time, Policy policy, int quantum, long[] remaining,
+                                 int[] running, long[] started, long[] sliceEnd, LongHeap events) {
+        long slice = policy == Policy.RR ? Math.min(quantum, remaining[job]) : remaining[job];
+        running[core] = job;
+        started[core] = time;
+        sliceEnd[core] = time + slice;  // Any older event for this core is now stale
+        events.add(((time + slice) << CORE_BITS) | core);
+    }
+
+    // Ready-queue key: lower runs first; FIFO policies order by enqueue sequence
+    private static long key(Policy policy, int job, int[] burst, int[] priority, long[] remaining, int[] rank, long sequence) {
+        switch (policy) {
+            case SJF:
+                return ((long) burst[job] << 32) | rank[job];
+            case SRTF:
+                return (remaining[job] << 32) | rank[job];
+            case PRIORITY:
+                return ((long) priority[job] << 32) | rank[job];
+            default:
+                return sequence;
+        }
+    }
+
+    // Binary min-heap of jobs keyed on a long
+    private static final class JobHeap {
+        private long[] keys = new long[16];
+        private int[] jobs = new int[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long peekKey() {
+            return keys[0];
+        }
+
+        void add(int job, long key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                jobs = Arrays.copyOf(jobs, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) break;
+                keys[i] = keys[parent];
+                jobs[i] = jobs[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            jobs[i] = job;
+        }
+
+        int poll() {
+            int top = jobs[0];
+            long key = keys[--size];
+            int job = jobs[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+                if (keys[child] >= key) break;
+                keys[i] = keys[child];
+                jobs[i] = jobs[child];
+                i = child;
+            }
+            keys[i] = key;
+            jobs[i] = job;
+            return top;
+        }
+    }
+
+    // Binary min-heap of longs
+    private static final class LongHeap {
+        private long[] heap = new long[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long peek() {
+            return heap[0];
+        }
+
+        void add(long value) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+            int i = size++;
+            while (i > 0 && heap[(i - 1) >>> 1] > value) {
+                heap[i] = heap[(i - 1) >>> 1];
+                i = (i - 1) >>> 1;
+            }
+            heap[i] = value;
+        }
+
+        long poll() {
+            long top = heap[0];
+            long value = heap[--size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                if (heap[child] >= value) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+            return top;
+        }
+    }
+
+    public static void printResult(String title, Result result) {
+        System.out.println("\n--- " + title + " ---");
+        System.out.println("------------------------------------------------------------");
+        System.out.printf("Makespan                : %d\n", result.makespan);
+        System.out.printf("Average Turnaround Time : %.2f (p99 %d)\n", result.avgTAT, result.p99TAT);
+        System.out.printf("Average Waiting Time    : %.2f (p99 %d)\n", result.avgWT, result.p99WT);
+        StringBuilder utilization = new StringBuilder();
+        for (int core = 0; core < result.busy.length; core++) {
+            if (core > 0) utilization.append(core % 8 == 0 ? "\n                          " : " ");
+            utilization.append(String.format("%5.1f%%", result.makespan == 0 ? 0.0 : 100.0 * result.busy[core] / result.makespan));
+        }
+        System.out.println("Core Utilization        : " + utilization);
+    }
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int cpus = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int quantum = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        // Random workload: arrivals spread so the machine is moderately loaded
+        Random random = new Random(42);
+        ProcessTable processes = new ProcessTable(n);
+        for (int i = 0; i < n; i++) {
+            processes.burst[i] = 1 + random.nextInt(50);
+            processes.arrival[i] = random.nextInt((int) Math.max(1, (long) n * 26 / cpus));
+            processes.priority[i] = random.nextInt(10);
+        }
+
+        for (QueueMode mode : QueueMode.values()) {
+            for (Policy policy : Policy.values()) {
+                long start = System.nanoTime();
+                Result result = simulate(processes, cpus, policy, mode, quantum);
+                long elapsed = (System.nanoTime() - start) / 1_000_000;
+                printResult(policy + " on " + cpus + " CPUs, " + mode + " queue (" + elapsed + " ms)", result);
+            }
+        }
+    }
+}
@@ -1,94 +1,916 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 public class PageReplacement {
 
+    // A replacement policy simulated one reference at a time
+    interface ReplacementPolicy {
+        String name();
+
+        // Returns true on a hit, false on a page fault
+        boolean access(int page);
+
+        long faults();
+    }
+
     // LRU (Least Recently Used)
     public static void LRU(int[] pages, int frameCount) {
-        Set<Integer> frames = new HashSet<>();
-        LinkedList<Integer> order = new LinkedList<>();
-        int pageFaults = 0;
-
+        LruSimulator lru = new LruSimulator(frameCount);
         for (int page : pages) {
-            if (!frames.contains(page)) {
-                if (frames.size() == frameCount) {
-                    frames.remove(order.poll());
+            lru.access(page);
+        }
+        System.out.println("LRU Page Faults: " + lru.misses);
+    }
+
+    // O(1) LRU: page -> slot map plus a doubly linked list of slots, all on int arrays
+    static final class LruSimulator implements ReplacementPolicy {
+        private final int[] slotPage, prev, next;
+        private final IntIntMap slotOf;
+        private int head = -1, tail = -1, used;  // head = most recently used, tail = least
+        long hits, misses, evictions;
+
+        LruSimulator(int frameCount) {
+            if (frameCount <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            slotPage = new int[frameCount];
+            prev = new int[frameCount];
+            next = new int[frameCount];
+            slotOf = new IntIntMap(frameCount);
+        }
+
+        @Override
+        public String name() {
+            return "LRU";
+        }
+
+        @Override
+        public long faults() {
+            return misses;
+        }
+
+        @Override
+        public boolean access(int page) {
+            int slot = slotOf.get(page);
+            if (slot != -1) {
+                hits++;
+                if (slot != head) {
+                    unlink(slot);
+                    linkFront(slot);
+                }
+                return true;
+            }
+
+            misses++;
+            if (used < slotPage.length) {
+                slot = used++;
+            } else {
+                // Evict the least recently used page and reuse its slot
+                slot = tail;
+                unlink(slot);
+                slotOf.remove(slotPage[slot]);
+                evictions++;
+            }
+            slotPage[slot] = page;
+            slotOf.put(page, slot);
+            linkFront(slot);
+            return false;
+        }
+
+        private void unlink(int slot) {
+            if (prev[slot] != -1) next[prev[slot]] = next[slot];
+            else head = next[slot];
+            if (next[slot] != -1) prev[next[slot]] = prev[slot];
+            else tail = prev[slot];
+        }
+
+        private void linkFront(int slot) {
+            prev[slot] = -1;
+            next[slot] = head;
+            if (head != -1) prev[head] = slot;
+            head = slot;
+            if (tail == -1) tail = slot;
+        }
+    }
+
+    // LRU fault counts for every frame count 0..maxFrames in one pass (Mattson stack distances).
+    // A Fenwick tree over reference times marks each page's latest reference, so a reuse's stack
+    // distance is the number of marks after its previous reference, plus one. Only one mark per
+    // distinct page is live, so when the tree fills up the live marks are renumbered 0..d-1 in order
+    // and the tree is rebuilt: memory follows the number of distinct pages, not the trace length.
+    static final class StackDistances {
+        private final int maxFrames;
+        private final long[] atDistance;  // Last bucket collects distances beyond maxFrames
+        private final IntIntMap lastSeen = new IntIntMap(16);
+        private int[] tree, pageAt;  // pageAt[t]: page referenced at (renumbered) time t
+        private int time;
+        private long coldMisses;
+
+        StackDistances(int maxFrames) {
+            if (maxFrames <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            this.maxFrames = maxFrames;
+            this.atDistance = new long[maxFrames + 2];
+            this.pageAt = new int[1 << 16];
+            this.tree = new int[pageAt.length + 1];
+        }
+
+        void access(int page) {
+            if (time == pageAt.length) compact();
+            int last = lastSeen.get(page);
+            if (last == -1) {
+                coldMisses++;
+            } else {
+                int distance = marksBefore(time) - marksBefore(last + 1) + 1;
+                atDistance[Math.min(distance, maxFrames + 1)]++;
+                mark(last, -1);
+            }
+            mark(time, 1);
+            pageAt[time] = page;
+            lastSeen.put(page, time++);
+        }
+
+        // With f frames, every reuse at distance > f is a fault
+        long[] faults() {
+            long[] faults = new long[maxFrames + 1];
+            long farther = coldMisses + atDistance[maxFrames + 1];
+            for (int f = maxFrames; f >= 0; f--) {
+                faults[f] = farther;
+                farther += atDistance[f];
+            }
+            return faults;
+        }
+
+        // Renumber the live marks 0..d-1, keeping their order; doubles the tree if they fill half of it
+        private void compact() {
+            int live = 0;
+            for (int t = 0; t < time; t++) {
+                int page = pageAt[t];
+                if (lastSeen.get(page) == t) {
+                    pageAt[live] = page;
+                    lastSeen.put(page, live++);
                 }
-                frames.add(page);
-                pageFaults++;
             }
-            order.remove((Integer) page);
-            order.add(page);
+            if (live * 2 > pageAt.length) {
+                pageAt = Arrays.copyOf(pageAt, pageAt.length * 2);
+                tree = new int[pageAt.length + 1];
+            } else {
+                Arrays.fill(tree, 0);
+            }
+            // Linear-time Fenwick build over marks at 0..live-1
+            for (int i = 1; i < tree.length; i++) {
+                if (i <= live) tree[i]++;
+                int parent = i + (i & -i);
+                if (parent < tree.length) tree[parent] += tree[i];
+            }
+            time = live;
+        }
+
+        private void mark(int t, int delta) {
+            for (int i = t + 1; i < tree.length; i += i & -i) tree[i] += delta;
+        }
+
+        // Number of marked reference times < t
+        private int marksBefore(int t) {
+            int sum = 0;
+            for (int i = t; i > 0; i -= i & -i) sum += tree[i];
+            return sum;
+        }
+    }
+
+    // Print a faults-versus-frames CSV. The LRU column takes one pass over the trace; the FIFO column
+    // (which exposes Belady's anomaly) needs one simulation per size, so it rewinds the trace for each
+    public static void printFaultCurve(PageTrace trace, int maxFrames, boolean withFifo, PrintStream out) {
+        StackDistances distances = new StackDistances(maxFrames);
+        while (trace.hasNext()) {
+            distances.access(trace.next());
+        }
+        long[] lru = distances.faults();
+        out.println(withFifo ? "frames,lru_faults,fifo_faults,fifo_anomaly" : "frames,lru_faults");
+
+        long previousFifo = Long.MAX_VALUE;
+        for (int f = 1; f <= maxFrames; f++) {
+            if (!withFifo) {
+                out.println(f + "," + lru[f]);
+                continue;
+            }
+            FifoSimulator fifo = new FifoSimulator(f);
+            trace.rewind();
+            while (trace.hasNext()) {
+                fifo.access(trace.next());
+            }
+            out.println(f + "," + lru[f] + "," + fifo.misses + "," + (fifo.misses > previousFifo));
+            previousFifo = fifo.misses;
+        }
+    }
+
+    // Open-addressed int -> int map with linear probing; values must be non-negative, missing keys give -1
+    static final class IntIntMap {
+        private int[] keys, values;  // values[i] == -1 marks an empty bucket
+        private int mask, size;
+
+        IntIntMap(int expectedSize) {
+            int capacity = 4;
+            while (capacity < expectedSize * 2) capacity <<= 1;
+            allocate(capacity);
+        }
+
+        int get(int key) {
+            for (int i = bucket(key); ; i = (i + 1) & mask) {
+                if (values[i] == -1) return -1;
+                if (keys[i] == key) return values[i];
+            }
+        }
+
+        void put(int key, int value) {
+            int i = bucket(key);
+            while (values[i] != -1 && keys[i] != key) i = (i + 1) & mask;
+            if (values[i] == -1 && ++size * 2 > keys.length) {
+                grow();
+                put(key, value);
+                return;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void remove(int key) {
+            int gap = bucket(key);
+            while (values[gap] != -1 && keys[gap] != key) gap = (gap + 1) & mask;
+            if (values[gap] == -1) return;
+
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            for (int j = (gap + 1) & mask; values[j] != -1; j = (j + 1) & mask) {
+                int home = bucket(keys[j]);
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            values[gap] = -1;
+            size--;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int bucket(int key) {
+            int h = key * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void allocate(int capacity) {
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, -1);
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys, oldValues = values;
+            allocate(oldKeys.length << 1);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != -1) put(oldKeys[i], oldValues[i]);
+            }
         }
-        System.out.println("LRU Page Faults: " + pageFaults);
     }
 
     // FIFO (First In First Out)
     public static void FIFO(int[] pages, int frameCount) {
-        Queue<Integer> frames = new LinkedList<>();
-        Set<Integer> frameSet = new HashSet<>();
-        int pageFaults = 0;
-
+        FifoSimulator fifo = new FifoSimulator(frameCount);
         for (int page : pages) {
-            if (!frameSet.contains(page)) {
-                if (frames.size() == frameCount) {
-                    frameSet.remove(frames.poll());
-                }
-                frames.offer(page);
-                frameSet.add(page);
-                pageFaults++;
+            fifo.access(page);
+        }
+        System.out.println("FIFO Page Faults: " + fifo.misses);
+    }
+
+    // FIFO over a circular array of slots; the oldest slot is reused on eviction
+    static final class FifoSimulator implements ReplacementPolicy {
+        private final int[] slotPage;
+        private final IntIntMap slotOf;
+        private int used, oldest;
+        long hits, misses, evictions;
+
+        FifoSimulator(int frameCount) {
+            if (frameCount <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            slotPage = new int[frameCount];
+            slotOf = new IntIntMap(frameCount);
+        }
+
+        @Override
+        public String name() {
+            return "FIFO";
+        }
+
+        @Override
+        public long faults() {
+            return misses;
+        }
+
+        @Override
+        public boolean access(int page) {
+            if (slotOf.get(page) != -1) {
+                hits++;
+                return true;
             }
+
+            misses++;
+            int slot;
+            if (used < slotPage.length) {
+                slot = used++;
+            } else {
+                slot = oldest;
+                oldest = (oldest + 1) % slotPage.length;
+                slotOf.remove(slotPage[slot]);
+                evictions++;
+            }
+            slotPage[slot] = page;
+            slotOf.put(page, slot);
+            return false;
         }
-        System.out.println("FIFO Page Faults: " + pageFaults);
     }
 
     // Optimal Page Replacement
     public static void Optimal(int[] pages, int frameCount) {
-        int pageFaults = 0;
-        int[] frames = new int[frameCount];
-        Arrays.fill(frames, -1);
-
-        for (int i = 0; i < pages.length; i++) {
-            if (indexOf(frames, pages[i]) == -1) {
-                int emptyIndex = indexOf(frames, -1);
-                if (emptyIndex != -1) frames[emptyIndex] = pages[i];
-                else {
-                    int farthest = farthestUse(frames, pages, i);
-                    frames[farthest] = pages[i];
+        OptimalSimulator optimal = new OptimalSimulator(frameCount, pages);
+        for (int page : pages) {
+            optimal.access(page);
+        }
+        System.out.println("Optimal Page Faults: " + optimal.misses);
+    }
+
+    // nextUse[i] = index of the next reference to pages[i], or NEVER; built in one backward pass
+    static int[] nextUses(int[] pages) {
+        int[] nextUse = new int[pages.length];
+        IntIntMap lastSeen = new IntIntMap(16);
+        for (int i = pages.length - 1; i >= 0; i--) {
+            int seen = lastSeen.get(pages[i]);
+            nextUse[i] = seen == -1 ? NEVER : seen;
+            lastSeen.put(pages[i], i);
+        }
+        return nextUse;
+    }
+
+    static final int NEVER = Integer.MAX_VALUE;
+
+    // Belady's algorithm: resident slots kept in a max-heap on their next use, O(log frames) per access
+    static final class OptimalSimulator implements ReplacementPolicy {
+        private final int[] slotPage, slotNext, heap, heapIndex;
+        private final IntIntMap slotOf;
+        private int used, position;
+        private int[] nextUse;  // Only set when the whole trace is known up front
+        long hits, misses, evictions;
+
+        OptimalSimulator(int frameCount, int[] pages) {
+            this(frameCount);
+            nextUse = nextUses(pages);
+        }
+
+        OptimalSimulator(int frameCount) {
+            if (frameCount <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            slotPage = new int[frameCount];
+            slotNext = new int[frameCount];
+            heap = new int[frameCount];
+            heapIndex = new int[frameCount];
+            slotOf = new IntIntMap(frameCount);
+        }
+
+        @Override
+        public String name() {
+            return "Optimal";
+        }
+
+        @Override
+        public long faults() {
+            return misses;
+        }
+
+        // Replays the trace given at construction; pages must arrive in trace order
+        @Override
+        public boolean access(int page) {
+            if (nextUse == null || position == nextUse.length) throw new IllegalStateException("Reference beyond known trace");
+            return access(page, nextUse[position++]);
+        }
+
+        // nextUse is the position of the next reference to this page (NEVER if none)
+        boolean access(int page, int nextUse) {
+            int slot = slotOf.get(page);
+            if (slot != -1) {
+                hits++;
+                slotNext[slot] = nextUse;
+                siftUp(heapIndex[slot]);
+                siftDown(heapIndex[slot]);
+                return true;
+            }
+
+            misses++;
+            if (used < slotPage.length) {
+                slot = used;
+                heap[used] = slot;
+                heapIndex[slot] = used++;
+            } else {
+                // Evict the page whose next use is farthest away
+                slot = heap[0];
+                slotOf.remove(slotPage[slot]);
+                evictions++;
+            }
+            slotPage[slot] = page;
+            slotNext[slot] = nextUse;
+            slotOf.put(page, slot);
+            siftUp(heapIndex[slot]);
+            siftDown(heapIndex[slot]);
+            return false;
+        }
+
+        private void siftUp(int i) {
+            int slot = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (slotNext[heap[parent]] >= slotNext[slot]) break;
+                place(heap[parent], i);
+                i = parent;
+            }
+            place(slot, i);
+        }
+
+        private void siftDown(int i) {
+            int slot = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= used) break;
+                if (child + 1 < used && slotNext[heap[child + 1]] > slotNext[heap[child]]) child++;
+                if (slotNext[heap[child]] <= slotNext[slot]) break;
+                place(heap[child], i);
+                i = child;
+            }
+            place(slot, i);
+        }
+
+        private void place(int slot, int i) {
+            heap[i] = slot;
+            heapIndex[slot] = i;
+        }
+    }
+
+    // CLOCK: a hand sweeps the frames, clearing reference bits until it finds an unreferenced page.
+    // Pages are loaded with their reference bit set.
+    static final class ClockSimulator implements ReplacementPolicy {
+        private final int[] slotPage;
+        private final boolean[] referenced;
+        private final IntIntMap slotOf;
+        private int used, hand;
+        long hits, misses, evictions;
+
+        ClockSimulator(int frameCount) {
+            if (frameCount <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            slotPage = new int[frameCount];
+            referenced = new boolean[frameCount];
+            slotOf = new IntIntMap(frameCount);
+        }
+
+        @Override
+        public String name() {
+            return "CLOCK";
+        }
+
+        @Override
+        public long faults() {
+            return misses;
+        }
+
+        @Override
+        public boolean access(int page) {
+            int slot = slotOf.get(page);
+            if (slot != -1) {
+                hits++;
+                referenced[slot] = true;
+                return true;
+            }
+
+            misses++;
+            if (used < slotPage.length) {
+                slot = used++;
+            } else {
+                while (referenced[hand]) {
+                    referenced[hand] = false;
+                    hand = (hand + 1) % slotPage.length;
                 }
-                pageFaults++;
+                slot = hand;
+                hand = (hand + 1) % slotPage.length;
+                slotOf.remove(slotPage[slot]);
+                evictions++;
             }
+            slotPage[slot] = page;
+            referenced[slot] = true;
+            slotOf.put(page, slot);
+            return false;
         }
-        System.out.println("Optimal Page Faults: " + pageFaults);
     }
 
-    private static int indexOf(int[] frames, int page) {
-        for (int i = 0; i < frames.length; i++) {
-            if (frames[i] == page) return i;
+    // Second-Chance: frames sit in a FIFO queue. The page at the head is evicted unless its reference
+    // bit is set; then the bit is cleared and it moves to the tail. Loading sets the bit, as in CLOCK,
+    // so both make the same choices and fault equally; CLOCK just sweeps a hand over fixed slots
+    // instead of moving entries through a queue.
+    static final class SecondChanceSimulator implements ReplacementPolicy {
+        private final int[] slotPage;
+        private final boolean[] referenced;
+        private final IntIntMap slotOf;
+        private final IntRingQueue queue;  // Slots, oldest load first
+        private int used;
+        long hits, misses, evictions;
+
+        SecondChanceSimulator(int frameCount) {
+            if (frameCount <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            slotPage = new int[frameCount];
+            referenced = new boolean[frameCount];
+            slotOf = new IntIntMap(frameCount);
+            queue = new IntRingQueue(frameCount);
+        }
+
+        @Override
+        public String name() {
+            return "Second-Chance";
+        }
+
+        @Override
+        public long faults() {
+            return misses;
+        }
+
+        @Override
+        public boolean access(int page) {
+            int slot = slotOf.get(page);
+            if (slot != -1) {
+                hits++;
+                referenced[slot] = true;
+                return true;
+            }
+
+            misses++;
+            if (used < slotPage.length) {
+                slot = used++;
+            } else {
+                for (slot = queue.poll(); referenced[slot]; slot = queue.poll()) {
+                    referenced[slot] = false;
+                    queue.add(slot);
+                }
+                slotOf.remove(slotPage[slot]);
+                evictions++;
+            }
+            slotPage[slot] = page;
+            referenced[slot] = true;
+            slotOf.put(page, slot);
+            queue.add(slot);
+            return false;
         }
-        return -1;
     }
 
-    private static int farthestUse(int[] frames, int[] pages, int currentIndex) {
-        int farthest = -1, maxDistance = -1;
-        for (int i = 0; i < frames.length; i++) {
-            int dist = nextUse(pages, currentIndex, frames[i]);
-            if (dist == -1) return i;
-            if (dist > maxDistance) {
-                maxDistance = dist;
-                farthest = i;
+    // O(1) LFU: slots sit in per-frequency circular lists, ties evict the least recently used
+    static final class LfuSimulator implements ReplacementPolicy {
+        private final int[] slotPage, frequency, prev, next;
+        private final IntIntMap slotOf;
+        private final IntIntMap bucketHead;  // frequency -> most recently used slot at that frequency
+        private int used, minFrequency;
+        long hits, misses, evictions;
+
+        LfuSimulator(int frameCount) {
+            if (frameCount <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            slotPage = new int[frameCount];
+            frequency = new int[frameCount];
+            prev = new int[frameCount];
+            next = new int[frameCount];
+            slotOf = new IntIntMap(frameCount);
+            bucketHead = new IntIntMap(frameCount);
+        }
+
+        @Override
+        public String name() {
+            return "LFU";
+        }
+
+        @Override
+        public long faults() {
+            return misses;
+        }
+
+        @Override
+        public boolean access(int page) {
+            int slot = slotOf.get(page);
+            if (slot != -1) {
+                hits++;
+                int f = frequency[slot];
+                unlink(slot);
+                if (f == minFrequency && bucketHead.get(f) == -1) minFrequency++;
+                frequency[slot] = f + 1;
+                linkFront(slot);
+                return true;
+            }
+
+            misses++;
+            if (used < slotPage.length) {
+                slot = used++;
+            } else {
+                // Least recently used slot of the lowest frequency is the tail of its list
+                slot = prev[bucketHead.get(minFrequency)];
+                unlink(slot);
+                slotOf.remove(slotPage[slot]);
+                evictions++;
             }
+            slotPage[slot] = page;
+            frequency[slot] = 1;
+            minFrequency = 1;
+            slotOf.put(page, slot);
+            linkFront(slot);
+            return false;
+        }
+
+        private void unlink(int slot) {
+            int f = frequency[slot];
+            if (next[slot] == slot) {
+                bucketHead.remove(f);
+                return;
+            }
+            next[prev[slot]] = next[slot];
+            prev[next[slot]] = prev[slot];
+            if (bucketHead.get(f) == slot) bucketHead.put(f, next[slot]);
+        }
+
+        private void linkFront(int slot) {
+            int head = bucketHead.get(frequency[slot]);
+            if (head == -1) {
+                prev[slot] = next[slot] = slot;
+            } else {
+                prev[slot] = prev[head];
+                next[slot] = head;
+                next[prev[head]] = slot;
+                prev[head] = slot;
+            }
+            bucketHead.put(frequency[slot], slot);
         }
-        return farthest;
     }
 
-    private static int nextUse(int[] pages, int currentIndex, int page) {
-        for (int i = currentIndex + 1; i < pages.length; i++) {
-            if (pages[i] == page) return i;
+    // ARC (Megiddo & Modha): resident lists T1 (seen once) and T2 (seen again) plus ghost lists
+    // B1/B2 of recently evicted pages; hits in the ghosts adapt the target size p of T1
+    static final class ArcSimulator implements ReplacementPolicy {
+        private static final int T1 = 0, T2 = 1, B1 = 2, B2 = 3;
+
+        private final int capacity;
+        private final int[] entryPage, entryList, prev, next, free;
+        private final int[] head = {-1, -1, -1, -1}, tail = {-1, -1, -1, -1}, size = new int[4];
+        private final IntIntMap entryOf;
+        private int freeCount, target;
+        long hits, misses, evictions;
+
+        ArcSimulator(int frameCount) {
+            if (frameCount <= 0) throw new IllegalArgumentException("Frame count must be positive");
+            capacity = frameCount;
+            int entries = 2 * frameCount + 1;
+            entryPage = new int[entries];
+            entryList = new int[entries];
+            prev = new int[entries];
+            next = new int[entries];
+            free = new int[entries];
+            for (int i = 0; i < entries; i++) free[freeCount++] = entries - 1 - i;
+            entryOf = new IntIntMap(entries);
+        }
+
+        @Override
+        public String name() {
+            return "ARC";
         }
-        return -1;
+
+        @Override
+        public long faults() {
+            return misses;
+        }
+
+        @Override
+        public boolean access(int page) {
+            int entry = entryOf.get(page);
+            int list = entry == -1 ? -1 : entryList[entry];
+
+            if (list == T1 || list == T2) {
+                hits++;
+                moveToFront(entry, T2);
+                return true;
+            }
+
+            misses++;
+            if (list == B1) {
+                target = Math.min(capacity, target + Math.max(size[B2] / size[B1], 1));
+                replace(false);
+                moveToFront(entry, T2);
+                return false;
+            }
+            if (list == B2) {
+                target = Math.max(0, target - Math.max(size[B1] / size[B2], 1));
+                replace(true);
+                moveToFront(entry, T2);
+                return false;
+            }
+
+            // Page not tracked at all
+            if (size[T1] + size[B1] == capacity) {
+                if (size[T1] < capacity) {
+                    release(tail[B1]);
+                    replace(false);
+                } else {
+                    release(tail[T1]);
+                    evictions++;
+                }
+            } else {
+                int total = size[T1] + size[T2] + size[B1] + size[B2];
+                if (total >= capacity) {
+                    if (total == 2 * capacity) release(tail[B2]);
+                    replace(false);
+                }
+            }
+            entry = free[--freeCount];
+            entryPage[entry] = page;
+            entryList[entry] = -1;
+            entryOf.put(page, entry);
+            moveToFront(entry, T1);
+            return false;
+        }
+
+        // Evict the LRU page of T1 or T2 into its ghost list
+        private void replace(boolean hitInB2) {
+            if (size[T1] > 0 && (size[T1] > target || (hitInB2 && size[T1] == target))) {
+                moveToFront(tail[T1], B1);
+            } else {
+                moveToFront(tail[T2], B2);
+            }
+            evictions++;
+        }
+
+        private void release(int entry) {
+            unlink(entry);
+            entryOf.remove(entryPage[entry]);
+            free[freeCount++] = entry;
+        }
+
+        private void moveToFront(int entry, int list) {
+            if (entryList[entry] != -1) unlink(entry);
+            entryList[entry] = list;
+            prev[entry] = -1;
+            next[entry] = head[list];
+            if (head[list] != -1) prev[head[list]] = entry;
+            head[list] = entry;
+            if (tail[list] == -1) tail[list] = entry;
+            size[list]++;
+        }
+
+        private void unlink(int entry) {
+            int list = entryList[entry];
+            if (prev[entry] != -1) next[prev[entry]] = next[entry];
+            else head[list] = next[entry];
+            if (next[entry] != -1) prev[next[entry]] = prev[entry];
+            else tail[list] = prev[entry];
+            size[list]--;
+            entryList[entry] = -1;
+        }
+    }
+
+    // Faults of one policy over a whole trace
+    private interface TraceRun {
+        long faults(PageTrace trace) throws IOException;
     }
 
-    public static void main(String[] args) {
+    private static TraceRun online(Supplier<ReplacementPolicy> policy) {
+        return trace -> {
+            ReplacementPolicy p = policy.get();
+            while (trace.hasNext()) {
+                p.access(trace.next());
+            }
+            return p.faults();
+        };
+    }
+
+    // Run every policy over the same trace file in parallel and print faults and cost per access.
+    // Each task streams its own mapped view of the file; Optimal makes its two passes over it.
+    public static void comparePolicies(Path path, PageTrace.Format format, int frameCount) {
+        Map<String, TraceRun> runs = new LinkedHashMap<>();
+        runs.put("FIFO", online(() -> new FifoSimulator(frameCount)));
+        runs.put("LRU", online(() -> new LruSimulator(frameCount)));
+        runs.put("Optimal", trace -> streamOptimal(trace, frameCount));
+        runs.put("CLOCK", online(() -> new ClockSimulator(frameCount)));
+        runs.put("Second-Chance", online(() -> new SecondChanceSimulator(frameCount)));
+        runs.put("LFU", online(() -> new LfuSimulator(frameCount)));
+        runs.put("ARC", online(() -> new ArcSimulator(frameCount)));
+
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (TraceRun run : runs.values()) {
+            tasks.add(() -> {
+                try (PageTrace trace = PageTrace.open(path, format)) {
+                    long start = System.nanoTime();
+                    long faults = run.faults(trace);
+                    return new long[] {faults, System.nanoTime() - start, trace.referencesRead()};
+                }
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<long[]>> results = pool.invokeAll(tasks);
+
+            System.out.println("\n+---------------+------------+------------+");
+            System.out.printf("| %-13s | %-10s | %-10s |\n", "Policy", "Faults", "ns/access");
+            System.out.println("+---------------+------------+------------+");
+            int i = 0;
+            for (String name : runs.keySet()) {
+                long[] result = results.get(i++).get();
+                System.out.printf("| %-13s | %-10d | %-10.2f |\n", name, result[0],
+                        result[2] == 0 ? 0.0 : (double) result[1] / result[2]);
+            }
+            System.out.println("+---------------+------------+------------+");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Stream a mapped trace file through FIFO and LRU, then run Optimal in two passes
+    public static void streamTrace(Path path, PageTrace.Format format, int frameCount) throws IOException {
+        FifoSimulator fifo = new FifoSimulator(frameCount);
+        LruSimulator lru = new LruSimulator(frameCount);
+
+        try (PageTrace trace = PageTrace.open(path, format)) {
+            while (trace.hasNext()) {
+                int page = trace.next();
+                fifo.access(page);
+                lru.access(page);
+            }
+            System.out.println("FIFO Page Faults: " + fifo.misses);
+            System.out.println("LRU Page Faults: " + lru.misses);
+
+            trace.rewind();
+            System.out.println("Optimal Page Faults: " + streamOptimal(trace, frameCount));
+        }
+    }
+
+    // Pass 1 records each reference's next use in a mapped side file, pass 2 replays it.
+    // The heap only holds one entry per distinct page, never the reference string.
+    static long streamOptimal(PageTrace trace, int frameCount) throws IOException {
+        OptimalSimulator optimal = new OptimalSimulator(frameCount);
+
+        try (PageTrace.MappedIntArray nextUse = new PageTrace.MappedIntArray(trace.maxReferences())) {
+            IntIntMap lastSeen = new IntIntMap(16);
+            int count = 0;
+            while (trace.hasNext()) {
+                if (count == NEVER) throw new IllegalStateException("Trace too long for Optimal");
+                int page = trace.next();
+                int seen = lastSeen.get(page);
+                if (seen != -1) nextUse.set(seen, count + 1);  // Stored +1 so that 0 means never used again
+                lastSeen.put(page, count++);
+            }
+
+            trace.rewind();
+            for (int i = 0; i < count; i++) {
+                int stored = nextUse.get(i);
+                optimal.access(trace.next(), stored == 0 ? NEVER : stored - 1);
+            }
+        }
+        return optimal.misses;
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Curve mode: PageReplacement --curve <trace-file> <max-frames> [text|binary] [--fifo]
+        if (args.length >= 3 && args[0].equals("--curve")) {
+            List<String> options = Arrays.asList(args);
+            PageTrace.Format format = options.contains("binary") ? PageTrace.Format.BINARY : PageTrace.Format.TEXT;
+            try (PageTrace trace = PageTrace.open(Paths.get(args[1]), format)) {
+                printFaultCurve(trace, Integer.parseInt(args[2]), options.contains("--fifo"), System.out);
+            }
+            return;
+        }
+
+        // Compare mode: PageReplacement --compare <trace-file> <frames> [text|binary]
+        if (args.length >= 3 && args[0].equals("--compare")) {
+            PageTrace.Format format = args.length > 3 && args[3].equalsIgnoreCase("binary")
+                    ? PageTrace.Format.BINARY : PageTrace.Format.TEXT;
+            comparePolicies(Paths.get(args[1]), format, Integer.parseInt(args[2]));
+            return;
+        }
+
+        // Trace mode: PageReplacement <trace-file> <frames> [text|binary]
+        if (args.length >= 2) {
+            PageTrace.Format format = args.length > 2 && args[2].equalsIgnoreCase("binary")
+                    ? PageTrace.Format.BINARY : PageTrace.Format.TEXT;
+            streamTrace(Paths.get(args[0]), format, Integer.parseInt(args[1]));
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
 
         // User input for page reference string
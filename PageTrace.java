@@ -0,0 +1,215 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Streams a page reference trace from a memory-mapped file, one window at a time,
+// so the reference string never has to fit on the heap.
+public class PageTrace implements Closeable {
+
+    // TEXT: integers separated by whitespace or commas; BINARY: little-endian int32 per reference
+    public enum Format { TEXT, BINARY }
+
+    // readLine result for a line holding a token that is not an integer
+    static final int NOT_NUMERIC = -2;
+
+    private static final long WINDOW_BYTES = 64L << 20;  // Multiple of 4 so int32 records never straddle windows
+
+    private final FileChannel channel;
+    private final Format format;
+    private final long fileSize;
+    private MappedByteBuffer window;
+    private long windowEnd;
+    private boolean hasPending;
+    private int pending;
+    private long referencesRead;
+
+    private PageTrace(FileChannel channel, Format format) throws IOException {
+        this.channel = channel;
+        this.format = format;
+        this.fileSize = channel.size();
+    }
+
+    public static PageTrace open(Path path, Format format) throws IOException {
+        return new PageTrace(FileChannel.open(path, StandardOpenOption.READ), format);
+    }
+
+    public Format format() {
+        return format;
+    }
+
+    // Upper bound on the number of references in the file, used to size side tables
+    public long maxReferences() {
+        return format == Format.BINARY ? fileSize / 4 : fileSize / 2 + 1;
+    }
+
+    public boolean hasNext() {
+        if (!hasPending) {
+            hasPending = format == Format.BINARY ? readBinary() : readText();
+        }
+        return hasPending;
+    }
+
+    public int next() {
+        if (!hasNext()) throw new IllegalStateException("End of trace");
+        hasPending = false;
+        referencesRead++;
+        return pending;
+    }
+
+    // References returned by next() since the file was opened or last rewound
+    public long referencesRead() {
+        return referencesRead;
+    }
+
+    // Restart from the beginning of the file (used by two-pass algorithms)
+    public void rewind() {
+        window = null;
+        windowEnd = 0;
+        hasPending = false;
+        referencesRead = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private boolean readBinary() {
+        if ((window == null || !window.hasRemaining()) && !mapNextWindow()) return false;
+        if (window.remaining() < 4) throw new IllegalStateException("Truncated binary trace");
+        pending = window.getInt();
+        return true;
+    }
+
+    private boolean readText() {
+        int b;
+        // Skip separators; any other byte must start a number
+        do {
+            b = nextByte();
+            if (b == -1) return false;
+        } while (isSeparator(b) || b == '\n');
+        if (b != '-' && (b < '0' || b > '9')) throw malformed("Unexpected byte '" + (char) b + "'");
+
+        boolean negative = b == '-';
+        long value = negative ? 0 : b - '0';
+        int digits = negative ? 0 : 1;
+        while ((b = nextByte()) >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            digits++;
+            if (value > Integer.MAX_VALUE + 1L) throw malformed("Page number out of range");
+        }
+        if (digits == 0) throw malformed("Expected a digit after '-'");
+        if (b != -1 && !isSeparator(b) && b != '\n') throw malformed("Unexpected byte '" + (char) b + "'");
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) throw malformed("Page number out of range");
+        pending = (int) value;
+        return true;
+    }
+
+    // Offset of the byte most recently read, for TEXT parse errors
+    private NumberFormatException malformed(String message) {
+        long offset = window == null ? 0 : windowEnd - window.remaining() - 1;
+        return new NumberFormatException(message + " at byte " + offset + " of trace");
+    }
+
+    // Line-oriented TEXT reading, for record files such as job traces; not to be mixed with next().
+    // Parses the next line's comma- or whitespace-separated integers into fields and returns how many
+    // there were (extras are counted but not stored), -1 at end of file, or NOT_NUMERIC if the line
+    // has a token that is not an int. The whole line is consumed in every case.
+    int readLine(int[] fields) {
+        int b = nextByte();
+        if (b == -1) return -1;
+        int count = 0;
+        boolean numeric = true;
+        while (b != -1 && b != '\n') {
+            if (isSeparator(b)) {
+                b = nextByte();
+                continue;
+            }
+            boolean negative = b == '-';
+            if (negative) b = nextByte();
+            long value = 0;
+            int digits = 0;
+            while (b >= '0' && b <= '9') {
+                if (value <= Integer.MAX_VALUE) value = value * 10 + (b - '0');
+                digits++;
+                b = nextByte();
+            }
+            value = negative ? -value : value;
+            if (digits == 0 || (b != -1 && b != '\n' && !isSeparator(b)) || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+                numeric = false;
+                while (b != -1 && b != '\n' && !isSeparator(b)) b = nextByte();  // Skip the rest of the token
+                continue;
+            }
+            if (count < fields.length) fields[count] = (int) value;
+            count++;
+        }
+        return numeric ? count : NOT_NUMERIC;
+    }
+
+    private static boolean isSeparator(int b) {
+        return b == ',' || b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private int nextByte() {
+        if ((window == null || !window.hasRemaining()) && !mapNextWindow()) return -1;
+        return window.get() & 0xFF;
+    }
+
+    private boolean mapNextWindow() {
+        if (windowEnd >= fileSize) return false;
+        try {
+            long length = Math.min(WINDOW_BYTES, fileSize - windowEnd);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowEnd, length);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowEnd += length;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Int array backed by a memory-mapped temporary file; unwritten entries read as 0
+    static final class MappedIntArray implements Closeable {
+        private static final int CHUNK_SHIFT = 26;  // 64M ints (256 MB) per mapping
+        private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer[] chunks;
+
+        MappedIntArray(long length) throws IOException {
+            file = Files.createTempFile("page-trace", ".idx");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            int count = (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+            chunks = new MappedByteBuffer[Math.max(1, count)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_SHIFT;
+                long ints = Math.max(0, Math.min(CHUNK_MASK + 1, length - start));
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * 4, ints * 4);
+            }
+        }
+
+        int get(long index) {
+            return chunks[(int) (index >>> CHUNK_SHIFT)].getInt((int) (index & CHUNK_MASK) << 2);
+        }
+
+        void set(long index, int value) {
+            chunks[(int) (index >>> CHUNK_SHIFT)].putInt((int) (index & CHUNK_MASK) << 2, value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// What-if sweep: runs one workload through a grid of (policy, quantum, CPU count) configurations in
+// parallel and prints a comparison matrix. The workload columns are shared read-only by every task;
+// each simulation allocates its own scratch state, so tasks never contend on anything but the pool.
+public class PolicySweep {
+
+    static final class Config {
+        final MultiCpuSimulator.Policy policy;
+        final MultiCpuSimulator.QueueMode mode;
+        final int quantum, cpus;
+
+        Config(MultiCpuSimulator.Policy policy, MultiCpuSimulator.QueueMode mode, int quantum, int cpus) {
+            this.policy = policy;
+            this.mode = mode;
+            this.quantum = quantum;
+            this.cpus = cpus;
+        }
+    }
+
+    // Every policy at every CPU count; only RR is repeated for each quantum
+    static List<Config> grid(List<MultiCpuSimulator.Policy> policies, int[] quanta, int[] cpuCounts,
+                             MultiCpuSimulator.QueueMode mode) {
+        List<Config> configs = new ArrayList<>();
+        for (int cpus : cpuCounts) {
+            for (MultiCpuSimulator.Policy policy : policies) {
+                if (policy == MultiCpuSimulator.Policy.RR) {
+                    for (int quantum : quanta) configs.add(new Config(policy, mode, quantum, cpus));
+                } else {
+                    configs.add(new Config(policy, mode, 0, cpus));
+                }
+            }
+        }
+        return configs;
+    }
+
+    public static void sweep(ProcessTable workload, List<Config> configs, int threads) {
+        List<Callable<MultiCpuSimulator.Result>> tasks = new ArrayList<>();
+        long[] elapsed = new long[configs.size()];
+        for (int i = 0; i < configs.size(); i++) {
+            int index = i;
+            Config c = configs.get(i);
+            tasks.add(() -> {
+                long start = System.nanoTime();
+                MultiCpuSimulator.Result result = MultiCpuSimulator.simulate(workload.arrival, workload.burst,
+                        workload.priority, c.cpus, c.policy, c.mode, Math.max(1, c.quantum));
+                elapsed[index] = System.nanoTime() - start;
+                return result;
+            });
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(threads, tasks.size())));
+        try {
+            long start = System.nanoTime();
+            List<Future<MultiCpuSimulator.Result>> results = pool.invokeAll(tasks);
+            long wall = System.nanoTime() - start;
+
+            String line = "+----------+-------+------+------------+----------+----------+------------+----------+----------+----------+";
+            System.out.println("\n" + line);
+            System.out.printf("| %-8s | %-5s | %-4s | %-10s | %-8s | %-8s | %-10s | %-8s | %-8s | %-8s |\n", "Policy", "q", "CPUs",
+                    "Avg WT", "p50 WT", "p99 WT", "Avg TAT", "p50 TAT", "p99 TAT", "ms");
+            System.out.println(line);
+            long busy = 0;
+            for (int i = 0; i < configs.size(); i++) {
+                Config c = configs.get(i);
+                MultiCpuSimulator.Result r = results.get(i).get();
+                busy += elapsed[i];
+                System.out.printf("| %-8s | %-5s | %-4d | %-10.2f | %-8d | %-8d | %-10.2f | %-8d | %-8d | %-8d |\n", c.policy,
+                        c.policy == MultiCpuSimulator.Policy.RR ? String.valueOf(c.quantum) : "-", c.cpus,
+                        r.avgWT, r.p50WT, r.p99WT, r.avgTAT, r.p50TAT, r.p99TAT, elapsed[i] / 1_000_000);
+            }
+            System.out.println(line);
+            System.out.printf("%d configurations on %d threads in %d ms (%.2fx over sequential)\n",
+                    configs.size(), pool.getParallelism(), wall / 1_000_000, (double) busy / wall);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) values[i] = Integer.parseInt(parts[i].trim());
+        return values;
+    }
+
+    // PolicySweep <trace file | job count> [--policies FCFS,SJF,...] [--quanta 1,2,4] [--cpus 1,2,4]
+    //             [--per-core] [--threads k]
+    public static void main(String[] args) throws IOException {
+        String source = args.length > 0 ? args[0] : "200000";
+        List<MultiCpuSimulator.Policy> policies = new ArrayList<>(List.of(MultiCpuSimulator.Policy.values()));
+        int[] quanta = { 1, 2, 3, 4, 5, 6, 8, 10, 12, 16, 24, 32 };
+        int[] cpuCounts = { 1 };
+        MultiCpuSimulator.QueueMode mode = MultiCpuSimulator.QueueMode.GLOBAL;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--policies":
+                    policies.clear();
+                    for (String name : args[++i].split(",")) policies.add(MultiCpuSimulator.Policy.valueOf(name.trim().toUpperCase()));
+                    break;
+                case "--quanta":
+                    quanta = parseList(args[++i]);
+                    break;
+                case "--cpus":
+                    cpuCounts = parseList(args[++i]);
+                    break;
+                case "--per-core":
+                    mode = MultiCpuSimulator.QueueMode.PER_CORE;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        ProcessTable workload;
+        if (source.chars().allMatch(Character::isDigit)) {
+            // Generated workload: bursts 1-50, priorities 0-9, arrivals keeping one CPU about 95% busy
+            int n = Integer.parseInt(source);
+            Random random = new Random(42);
+            workload = new ProcessTable(n);
+            for (int i = 0; i < n; i++) {
+                workload.burst[i] = 1 + random.nextInt(50);
+                workload.arrival[i] = random.nextInt((int) Math.max(1, (long) n * 27));
+                workload.priority[i] = random.nextInt(10);
+            }
+        } else {
+            workload = ProcessTable.of(JobTrace.load(Paths.get(source),
+                    source.endsWith(".bin") ? JobTrace.Format.BINARY : JobTrace.Format.CSV));
+        }
+
+        sweep(workload, grid(policies, quanta, cpuCounts, mode), threads);
+    }
+}
@@ -1,49 +1,285 @@
+import java.io.IOException;
 import java.util.*;
 
-class Process {
-    int pid;       // Process ID
-    int bt;        // Burst Time
-    int priority;  // Priority
-    int wt;        // Waiting Time
-    int tat;       // Turnaround Time
-
-    Process(int pid, int bt, int priority) {
-        this.pid = pid;
-        this.bt = bt;
-        this.priority = priority;
+public class Priority_Scheduling {
+
+    // Event-driven priority scheduling. Ready processes sit in an indexed min-heap on effective
+    // priority (ties: arrival, then pid). With aging, a waiting process moves up one level (never
+    // below 0) every agingInterval time units it spends in the ready queue, as an O(log n)
+    // decrease-key. It keeps the boost while running and drops back to its base priority when
+    // preempted, so a freshly dispatched process is never displaced at the same instant.
+    // agingInterval <= 0 disables aging.
+    // Fills the completion column and returns the row of the process that waited longest.
+    public static int schedule(ProcessTable processes, boolean preemptive, int agingInterval) {
+        processes.reset();
+        int n = processes.size;
+        int[] order = processes.arrivalOrder();
+
+        ReadyHeap ready = new ReadyHeap(processes);
+        AgingQueue aging = new AgingQueue(n);
+        int[] remaining = processes.remaining;
+        long[] nextAging = new long[n];
+
+        long time = 0;
+        int next = 0, done = 0, running = -1;
+
+        while (done < n) {
+            // If CPU is idle, jump to the next arrival
+            if (running == -1 && ready.isEmpty() && time < processes.arrival[order[next]]) {
+                time = processes.arrival[order[next]];
+            }
+            while (next < n && processes.arrival[order[next]] <= time) {
+                int i = order[next++];
+                ready.add(i, processes.priority[i]);
+                nextAging[i] = agingInterval > 0 && processes.priority[i] > 0 ? processes.arrival[i] + (long) agingInterval : -1;
+                if (nextAging[i] != -1) aging.add(nextAging[i], i);
+            }
+
+            // Apply every aging step that is due
+            while (!aging.isEmpty() && aging.peekTime() <= time) {
+                long due = aging.peekTime();
+                int i = aging.poll();
+                if (nextAging[i] != due) continue;  // Process was dispatched since
+                int boosted = ready.priorityOf(i) - 1;
+                ready.decreaseKey(i, boosted);
+                nextAging[i] = boosted > 0 ? due + agingInterval : -1;
+                if (nextAging[i] != -1) aging.add(nextAging[i], i);
+            }
+
+            if (running != -1 && preemptive && !ready.isEmpty() && ready.beats(ready.peek(), ready.priorityOf(running), running)) {
+                // Preempted process goes back to the ready queue and starts aging again
+                ready.add(running, processes.priority[running]);
+                nextAging[running] = agingInterval > 0 && processes.priority[running] > 0 ? time + agingInterval : -1;
+                if (nextAging[running] != -1) aging.add(nextAging[running], running);
+                running = -1;
+            }
+            if (running == -1) {
+                running = ready.poll();
+                nextAging[running] = -1;
+            }
+
+            // Run until completion, or until the next arrival / aging step may change the decision
+            long end = time + remaining[running];
+            if (preemptive) {
+                if (next < n) end = Math.min(end, processes.arrival[order[next]]);
+                if (!aging.isEmpty()) end = Math.min(end, aging.peekTime());
+            }
+            remaining[running] -= (int) (end - time);
+            time = end;
+
+            if (remaining[running] == 0) {
+                processes.completion[running] = time;
+                done++;
+                running = -1;
+            }
+        }
+
+        int longest = -1;
+        for (int i = 0; i < n; i++) {
+            if (longest == -1 || processes.waiting(i) > processes.waiting(longest)) longest = i;
+        }
+        return longest;
     }
-}
 
-public class Priority_Scheduling {
-    public static void main(String[] args) {
+    // Indexed binary min-heap of process indices on (effective priority, arrival, pid)
+    private static final class ReadyHeap {
+        private final ProcessTable processes;
+        private final int[] heap, position, priority;
+        private int size;
+
+        ReadyHeap(ProcessTable processes) {
+            this.processes = processes;
+            heap = new int[processes.size];
+            position = new int[processes.size];
+            priority = new int[processes.size];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        int priorityOf(int i) {
+            return priority[i];
+        }
+
+        // Does ready process i run before process j at effective priority pj?
+        boolean beats(int i, int pj, int j) {
+            if (priority[i] != pj) return priority[i] < pj;
+            if (processes.arrival[i] != processes.arrival[j]) return processes.arrival[i] < processes.arrival[j];
+            return processes.id[i] < processes.id[j];
+        }
+
+        void add(int i, int effectivePriority) {
+            priority[i] = effectivePriority;
+            heap[size] = i;
+            position[i] = size;
+            siftUp(size++);
+        }
+
+        int poll() {
+            int top = heap[0];
+            heap[0] = heap[--size];
+            position[heap[0]] = 0;
+            if (size > 0) siftDown(0);
+            return top;
+        }
+
+        void decreaseKey(int i, int effectivePriority) {
+            priority[i] = effectivePriority;
+            siftUp(position[i]);
+        }
+
+        private void siftUp(int k) {
+            int i = heap[k];
+            while (k > 0) {
+                int parent = (k - 1) >>> 1;
+                if (!beats(i, priority[heap[parent]], heap[parent])) break;
+                move(heap[parent], k);
+                k = parent;
+            }
+            move(i, k);
+        }
+
+        private void siftDown(int k) {
+            int i = heap[k];
+            while (true) {
+                int child = 2 * k + 1;
+                if (child >= size) break;
+                if (child + 1 < size && beats(heap[child + 1], priority[heap[child]], heap[child])) child++;
+                if (!beats(heap[child], priority[i], i)) break;
+                move(heap[child], k);
+                k = child;
+            }
+            move(i, k);
+        }
+
+        private void move(int i, int k) {
+            heap[k] = i;
+            position[i] = k;
+        }
+    }
+
+    // Min-heap of pending aging steps on (time, process), kept in parallel arrays so that any long
+    // time fits; ties go to the lower process index
+    private static final class AgingQueue {
+        private long[] times;
+        private int[] processes;
+        private int size;
+
+        AgingQueue(int capacity) {
+            times = new long[Math.max(16, capacity)];
+            processes = new int[times.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekTime() {
+            return times[0];
+        }
+
+        private static boolean less(long time, int process, long otherTime, int otherProcess) {
+            return time < otherTime || (time == otherTime && process < otherProcess);
+        }
+
+        private void move(int from, int to) {
+            times[to] = times[from];
+            processes[to] = processes[from];
+        }
+
+        void add(long time, int process) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                processes = Arrays.copyOf(processes, size * 2);
+            }
+            int k = size++;
+            while (k > 0 && less(time, process, times[(k - 1) >>> 1], processes[(k - 1) >>> 1])) {
+                move((k - 1) >>> 1, k);
+                k = (k - 1) >>> 1;
+            }
+            times[k] = time;
+            processes[k] = process;
+        }
+
+        int poll() {
+            int top = processes[0];
+            long time = times[--size];
+            int process = processes[size];
+            int k = 0;
+            while (2 * k + 1 < size) {
+                int child = 2 * k + 1;
+                if (child + 1 < size && less(times[child + 1], processes[child + 1], times[child], processes[child])) child++;
+                if (!less(times[child], processes[child], time, process)) break;
+                move(child, k);
+                k = child;
+            }
+            times[k] = time;
+            processes[k] = process;
+            return top;
+        }
+    }
+
+    // Trace mode: Priority_Scheduling <trace> [csv|binary] [--out <file> [csv|binary]] [--summary]
+    // [--preemptive] [--aging <interval>]
+    private static void runTrace(JobTrace.Options options, boolean preemptive, int agingInterval) throws IOException {
+        ProcessTable processes = ProcessTable.of(options.load());
+        int longest = schedule(processes, preemptive, agingInterval);
+
+        try (JobTrace.ResultWriter writer = options.writer()) {
+            writer.addAll(processes);
+            writer.printSummary("Priority Scheduling - " + options.trace.getFileName());
+            if (longest >= 0) {
+                writer.summaryStream().printf("Max Waiting Time        : %d (P%d)\n", processes.waiting(longest), processes.id[longest]);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Options: --preemptive, --aging <interval>; either one also asks for arrival times
+        boolean preemptive = false;
+        int agingInterval = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--preemptive")) preemptive = true;
+            else if (args[i].equals("--aging") && i + 1 < args.length) agingInterval = Integer.parseInt(args[++i]);
+        }
+        if (args.length > 0 && !args[0].startsWith("--")) {
+            runTrace(new JobTrace.Options(args), preemptive, agingInterval);
+            return;
+        }
+        boolean withArrival = preemptive || agingInterval > 0;
+
         Scanner sc = new Scanner(System.in);
         System.out.print("Enter number of processes: ");
         int n = sc.nextInt();
 
-        Process[] processes = new Process[n];
+        ProcessTable processes = new ProcessTable(n);
 
         for (int i = 0; i < n; i++) {
             System.out.println("\nEnter details for Process " + (i + 1));
+            if (withArrival) {
+                System.out.print("Arrival Time: ");
+                processes.arrival[i] = sc.nextInt();
+            }
             System.out.print("Burst Time: ");
-            int bt = sc.nextInt();
+            processes.burst[i] = sc.nextInt();
             System.out.print("Priority (lower value = higher priority): ");
-            int priority = sc.nextInt();
-            processes[i] = new Process(i + 1, bt, priority);
+            processes.priority[i] = sc.nextInt();
         }
 
-        // Sort by priority (lower number = higher priority)
-        Arrays.sort(processes, Comparator.comparingInt(p -> p.priority));
-
         // Calculate waiting time and turnaround time
-        int totalWT = 0, totalTAT = 0;
-        processes[0].wt = 0;
-        processes[0].tat = processes[0].bt;
+        int longest = schedule(processes, preemptive, agingInterval);
 
-        for (int i = 1; i < n; i++) {
-            processes[i].wt = processes[i - 1].wt + processes[i - 1].bt;
-            processes[i].tat = processes[i].wt + processes[i].bt;
-            totalWT += processes[i].wt;
-            totalTAT += processes[i].tat;
+        // Print in completion order
+        int[] finished = processes.completionOrder();
+        long totalWT = 0, totalTAT = 0;
+        for (int i : finished) {
+            totalWT += processes.waiting(i);
+            totalTAT += processes.turnaround(i);
         }
 
         // Print table header
@@ -52,14 +288,18 @@ public class Priority_Scheduling {
         System.out.println("+---------+------------+----------+--------------+----------------+");
 
         // Print process data
-        for (Process p : processes) {
-            System.out.printf("| %-7s | %-10d | %-8d | %-12d | %-14d |\n", "P" + p.pid, p.bt, p.priority, p.wt, p.tat);
+        for (int i : finished) {
+            System.out.printf("| %-7s | %-10d | %-8d | %-12d | %-14d |\n", "P" + processes.id[i], processes.burst[i],
+                    processes.priority[i], processes.waiting(i), processes.turnaround(i));
         }
 
         System.out.println("+---------+------------+----------+--------------+----------------+");
 
-        // Print averages
+        // Print averages and starvation metric
         System.out.printf("\nAverage Waiting Time    : %.2f\n", (float) totalWT / n);
-        System.out.printf("Average Turnaround Time : %.2f\n", (float) (totalTAT + processes[0].tat) / n);
+        System.out.printf("Average Turnaround Time : %.2f\n", (float) totalTAT / n);
+        if (n > 0) {
+            System.out.printf("Max Waiting Time        : %d (P%d)\n", processes.waiting(longest), processes.id[longest]);
+        }
     }
 }
@@ -0,0 +1,122 @@
+import java.util.Arrays;
+
+// Processes stored as parallel int columns (row i is one process) instead of one object each.
+// Completion times are long, since a trace's total work can pass 2^31.
+// The schedulers never modify the input columns; remaining and completion hold per-run state and
+// reset() restores them, so the same table can be scheduled again and again without copying.
+public final class ProcessTable {
+    final int size;
+    final int[] id, arrival, burst, priority;  // Input columns, may be shared between tables
+    final int[] remaining;                     // Per-run state
+    final long[] completion;
+
+    // n processes with ids 1..n; the caller fills in the input columns
+    ProcessTable(int n) {
+        this(new int[n], new int[n], new int[n], new int[n]);
+        for (int i = 0; i < n; i++) id[i] = i + 1;
+    }
+
+    // Wraps the given columns without copying them
+    ProcessTable(int[] id, int[] arrival, int[] burst, int[] priority) {
+        if (arrival.length != id.length || burst.length != id.length || priority.length != id.length)
+            throw new IllegalArgumentException("Columns must have the same length");
+        this.size = id.length;
+        this.id = id;
+        this.arrival = arrival;
+        this.burst = burst;
+        this.priority = priority;
+        this.remaining = burst.clone();
+        this.completion = new long[size];
+    }
+
+    static ProcessTable of(JobTrace trace) {
+        return new ProcessTable(trace.id, trace.arrival, trace.burst, trace.priority);
+    }
+
+    // The same processes with other arrival times; id, burst and priority columns are shared
+    ProcessTable withArrivals(int[] arrival) {
+        return new ProcessTable(id, arrival, burst, priority);
+    }
+
+    void reset() {
+        System.arraycopy(burst, 0, remaining, 0, size);
+        Arrays.fill(completion, 0);
+    }
+
+    long turnaround(int i) {
+        return completion[i] - arrival[i];
+    }
+
+    long waiting(int i) {
+        return completion[i] - arrival[i] - burst[i];
+    }
+
+    // Row indices sorted by arrival time, ties by row order
+    int[] arrivalOrder() {
+        return sortedBy(arrival);
+    }
+
+    // Row indices sorted by completion time, ties by row order
+    int[] completionOrder() {
+        // Replace each completion time by its rank so that rank and row still pack into one long
+        long[] sorted = completion.clone();
+        Arrays.sort(sorted);
+        int[] rank = new int[size];
+        for (int i = 0; i < size; i++) rank[i] = Arrays.binarySearch(sorted, completion[i]);
+        return sortedBy(rank);
+    }
+
+    private int[] sortedBy(int[] column) {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) keys[i] = ((long) column[i] << 32) | i;
+        Arrays.sort(keys);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = (int) keys[i];
+        return order;
+    }
+
+    // Binary min-heap of packed (key << 32 | row) longs, the ready queue of the heap-based schedulers
+    static final class ReadyQueue {
+        private long[] heap;
+        private int size;
+
+        ReadyQueue(int capacity) {
+            heap = new long[Math.max(16, capacity)];
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(long key, int row) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+            long value = (key << 32) | row;
+            int i = size++;
+            while (i > 0 && heap[(i - 1) >>> 1] > value) {
+                heap[i] = heap[(i - 1) >>> 1];
+                i = (i - 1) >>> 1;
+            }
+            heap[i] = value;
+        }
+
+        // Row with the smallest key, ties by row
+        int poll() {
+            long top = heap[0];
+            long value = heap[--size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                if (heap[child] >= value) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+            return (int) top;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Read-mostly key-value store using the BRAVO reader-writer protocol. While the store is read-biased,
+// a reader only increments and decrements its own stripe of a padded counter array, so readers on
+// different cores never write the same cache line. A writer takes the underlying write lock, clears
+// the bias (revocation) and waits for every stripe to drain to zero. Readers that miss the bias use
+// the read lock; bias comes back once a multiple of the last revocation time has passed, so frequent
+// writers do not pay for revocation on every write.
+public final class ReadMostlyStore<K, V> {
+
+    // Common interface of this store and the semaphore baseline it is benchmarked against
+    interface KeyValue<K, V> {
+        V get(K key) throws InterruptedException;
+
+        void put(K key, V value) throws InterruptedException;
+    }
+
+    private static final int PADDING = 16;  // Ints per stripe: 64 bytes, one cache line
+    private static final int INHIBIT_MULTIPLIER = 9;  // Bias stays off this many revocation times
+
+    private final Map<K, V> map = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicIntegerArray readers;  // Active fast-path readers per stripe
+    private final int stripeMask;
+    private volatile boolean readBias = true;
+    private long inhibitUntil;  // Written under the write lock, read by slow-path readers
+
+    private final LongAdder revocations = new LongAdder();
+
+    public ReadMostlyStore() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public ReadMostlyStore(int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("Need at least one stripe");
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.readers = new AtomicIntegerArray(size * PADDING);
+        this.stripeMask = size - 1;
+    }
+
+    // Each thread keeps using the same stripe; two threads may share one, which is only slower
+    private int slot() {
+        int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & stripeMask) * PADDING;
+    }
+
+    public V get(K key) {
+        if (readBias) {
+            int slot = slot();
+            readers.getAndIncrement(slot);
+            try {
+                // Re-check after registering: either we see the writer's revocation, or it sees us
+                if (readBias) return map.get(key);
+            } finally {
+                readers.getAndDecrement(slot);
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!readBias && System.nanoTime() >= inhibitUntil) readBias = true;  // No writer can be active
+            return map.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(K key, V value) {
+        lock.writeLock().lock();
+        try {
+            revokeBias();
+            map.put(key, value);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public V remove(K key) {
+        lock.writeLock().lock();
+        try {
+            revokeBias();
+            return map.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return map.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called with the write lock held: stop new fast-path readers, then wait for the current ones
+    private void revokeBias() {
+        if (!readBias) return;
+        long start = System.nanoTime();
+        readBias = false;
+        for (int slot = 0; slot < readers.length(); slot += PADDING) {
+            // Readers only hold a slot for one lookup; yield if one of them was descheduled in the middle
+            for (int spins = 0; readers.get(slot) != 0; spins++) {
+                if (spins < 100) Thread.onSpinWait();
+                else Thread.yield();
+            }
+        }
+        long now = System.nanoTime();
+        inhibitUntil = now + (now - start) * INHIBIT_MULTIPLIER;
+        revocations.increment();
+    }
+
+    long revocations() {
+        return revocations.sum();
+    }
+
+    // The benchmark's view of this store
+    KeyValue<K, V> asKeyValue() {
+        return new KeyValue<K, V>() {
+            @Override
+            public V get(K key) {
+                return ReadMostlyStore.this.get(key);
+            }
+
+            @Override
+            public void put(K key, V value) {
+                ReadMostlyStore.this.put(key, value);
+            }
+        };
+    }
+
+    // Baseline: the same map behind ReaderWriterProblem's reader-preferring semaphore protocol, where
+    // every reader passes the mutex twice and updates one shared readCount
+    static final class SemaphoreStore<K, V> implements KeyValue<K, V> {
+        private final Map<K, V> map = new HashMap<>();
+        private final Semaphore mutex = new Semaphore(1);  // Protect readCount
+        private final Semaphore writeSemaphore = new Semaphore(1);  // Protect write access
+        private final AtomicInteger readCount = new AtomicInteger(0);  // Track active readers
+
+        @Override
+        public V get(K key) throws InterruptedException {
+            mutex.acquire();
+            if (readCount.incrementAndGet() == 1) writeSemaphore.acquire();  // First reader blocks writers
+            mutex.release();
+            try {
+                return map.get(key);
+            } finally {
+                mutex.acquire();
+                if (readCount.decrementAndGet() == 0) writeSemaphore.release();  // Last reader lets them in
+                mutex.release();
+            }
+        }
+
+        @Override
+        public void put(K key, V value) throws InterruptedException {
+            writeSemaphore.acquire();
+            try {
+                map.put(key, value);
+            } finally {
+                writeSemaphore.release();
+            }
+        }
+    }
+
+    // Operations per second of `threads` threads doing writePercent% puts on random keys for durationMillis
+    static double measure(KeyValue<Integer, Integer> store, int threads, int writePercent, int keys, long durationMillis)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        Semaphore stopped = new Semaphore(0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long done = 0;
+                try {
+                    while (true) {
+                        // Poll the stop signal every 256 operations
+                        if ((done & 255) == 0 && stopped.availablePermits() > 0) break;
+                        int key = random.nextInt(keys);
+                        if (random.nextInt(100) < writePercent) store.put(key, key);
+                        else store.get(key);
+                        done++;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                operations.add(done);
+            });
+        }
+        long start = System.nanoTime();
+        Thread.sleep(durationMillis);
+        stopped.release();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        return operations.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) values[i] = Integer.parseInt(parts[i].trim());
+        return values;
+    }
+
+    // ReadMostlyStore [--threads 1,2,4,...] [--write-percent 1] [--keys n] [--seconds s]
+    public static void main(String[] args) throws InterruptedException {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        List<Integer> defaultThreads = new ArrayList<>();
+        for (int t = 1; t < 2 * cpus; t *= 2) defaultThreads.add(t);
+        defaultThreads.add(2 * cpus);
+        int[] threadCounts = defaultThreads.stream().mapToInt(Integer::intValue).toArray();
+        int writePercent = 1, keys = 10_000;
+        long durationMillis = 1000;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threadCounts = parseList(args[++i]);
+                    break;
+                case "--write-percent":
+                    writePercent = Integer.parseInt(args[++i]);
+                    break;
+                case "--keys":
+                    keys = Integer.parseInt(args[++i]);
+                    break;
+                case "--seconds":
+                    durationMillis = (long) (Double.parseDouble(args[++i]) * 1000);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        System.out.printf("\n%d CPUs, %d%% writes, %d keys\n", cpus, writePercent, keys);
+        String line = "+---------+----------------+---------+----------------+---------+-------------+";
+        System.out.println(line);
+        System.out.printf("| %-7s | %-14s | %-7s | %-14s | %-7s | %-11s |\n", "Threads", "Semaphore op/s", "Scaling",
+                "Striped op/s", "Scaling", "Revocations");
+        System.out.println(line);
+        double semaphoreBase = 0, stripedBase = 0;
+        for (int threads : threadCounts) {
+            SemaphoreStore<Integer, Integer> semaphoreStore = new SemaphoreStore<>();
+            ReadMostlyStore<Integer, Integer> stripedStore = new ReadMostlyStore<>();
+            for (int k = 0; k < keys; k++) {
+                semaphoreStore.put(k, k);
+                stripedStore.put(k, k);
+            }
+            long loaded = stripedStore.revocations();
+            double semaphore = measure(semaphoreStore, threads, writePercent, keys, durationMillis);
+            double striped = measure(stripedStore.asKeyValue(), threads, writePercent, keys, durationMillis);
+            if (semaphoreBase == 0) {
+                semaphoreBase = semaphore;
+                stripedBase = striped;
+            }
+            System.out.printf("| %-7d | %-14.0f | %-7.2f | %-14.0f | %-7.2f | %-11d |\n", threads, semaphore, semaphore / semaphoreBase,
+                    striped, striped / stripedBase, stripedStore.revocations() - loaded);
+        }
+        System.out.println(line);
+    }
+}
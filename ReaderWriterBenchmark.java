@@ -0,0 +1,72 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// Contention benchmark for the ReaderWriterProblem modes: every thread is a Worker that writes
+// writePercent% of the time, and each (thread count, write percentage, mode) point runs on a fresh
+// instance for a fixed time. Reports reader and writer throughput and the longest writer wait,
+// which shows writer starvation under READER_PREFERRING.
+public class ReaderWriterBenchmark {
+
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) values[i] = Integer.parseInt(parts[i].trim());
+        return values;
+    }
+
+    // ReaderWriterBenchmark [--threads 2,4,8] [--write-percent 1,10,50] [--modes FAIR,STAMPED,...]
+    //                       [--seconds s] [--read-work n] [--write-work n]
+    public static void main(String[] args) throws InterruptedException {
+        int[] threadCounts = { 2, 4, 8 };
+        int[] writePercents = { 1, 10, 50 };
+        List<ReaderWriterProblem.Mode> modes = new ArrayList<>(List.of(ReaderWriterProblem.Mode.values()));
+        long durationMillis = 1000;
+        int readWork = 10, writeWork = 10;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threadCounts = parseList(args[++i]);
+                    break;
+                case "--write-percent":
+                    writePercents = parseList(args[++i]);
+                    break;
+                case "--modes":
+                    modes.clear();
+                    for (String name : args[++i].split(",")) modes.add(ReaderWriterProblem.Mode.valueOf(name.trim().toUpperCase()));
+                    break;
+                case "--seconds":
+                    durationMillis = (long) (Double.parseDouble(args[++i]) * 1000);
+                    break;
+                case "--read-work":
+                    readWork = Integer.parseInt(args[++i]);
+                    break;
+                case "--write-work":
+                    writeWork = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        String line = "+-------------------+---------+---------+--------------+--------------+-----------------+------------+--------+";
+        System.out.println("\n" + line);
+        System.out.printf("| %-17s | %-7s | %-7s | %-12s | %-12s | %-15s | %-10s | %-6s |\n", "Mode", "Threads", "Write %",
+                "Reads/s", "Writes/s", "Max writer wait", "Opt. retry", "Torn");
+        System.out.println(line);
+        for (int threads : threadCounts) {
+            for (int writePercent : writePercents) {
+                for (ReaderWriterProblem.Mode mode : modes) {
+                    ReaderWriterProblem problem = new ReaderWriterProblem(mode, readWork, writeWork);
+                    List<Runnable> workers = new ArrayList<>();
+                    for (int t = 0; t < threads; t++) workers.add(problem.new Worker(writePercent));
+                    problem.run(workers, durationMillis, ThreadMode.PLATFORM);
+                    System.out.printf("| %-17s | %-7d | %-7d | %-12.0f | %-12.0f | %-12.2f ms | %-10d | %-6d |\n", mode, threads,
+                            writePercent, problem.readsPerSecond(), problem.writesPerSecond(), problem.maxWriterWaitMillis(),
+                            problem.optimisticRetries(), problem.tornReads());
+                }
+            }
+        }
+        System.out.println(line);
+    }
+}
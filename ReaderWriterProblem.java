@@ -1,16 +1,188 @@
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ReaderWriterProblem {
+
+    // READER_PREFERRING: first readers-writers solution, a steady reader stream starves writers;
+    // WRITER_PREFERRING: second solution, a waiting writer closes the door to new readers;
+    // FAIR: third solution, readers and writers pass one FIFO (fair semaphore) turnstile in arrival order;
+    // RW_LOCK: ReentrantReadWriteLock; STAMPED: StampedLock optimistic reads, read lock on conflict
+    public enum Mode { READER_PREFERRING, WRITER_PREFERRING, FAIR, RW_LOCK, STAMPED }
+
     private static final Logger LOGGER = Logger.getLogger(ReaderWriterProblem.class.getName());
-    private static final Semaphore mutex = new Semaphore(1);  // Protect readCount
-    private static final Semaphore writeSemaphore = new Semaphore(1);  // Protect write access
-    private static final AtomicInteger readCount = new AtomicInteger(0);  // Track active readers
+    private static final int CELLS = 64;
+
+    private final Mode mode;
+    private final int readWork, writeWork;  // Passes over the shared cells per read / write
+
+    private final Semaphore mutex = new Semaphore(1);  // Protect readCount
+    private final Semaphore writeSemaphore = new Semaphore(1);  // Protect write access
+    private final AtomicInteger readCount = new AtomicInteger(0);  // Track active readers
+    private final Semaphore readTry = new Semaphore(1);  // WRITER_PREFERRING: held while writers wait
+    private final Semaphore writeMutex = new Semaphore(1);  // Protect writeCount
+    private int writeCount;  // Waiting or active writers, guarded by writeMutex
+    private final Semaphore serviceQueue = new Semaphore(1, true);  // FAIR: FIFO turnstile
+    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final StampedLock stampedLock = new StampedLock();
+
+    // Shared resource: writers increment every cell, so a consistent read sees all cells equal
+    private final long[] cells = new long[CELLS];
+
+    private final LongAdder reads = new LongAdder(), writes = new LongAdder();
+    private final LongAdder tornReads = new LongAdder();  // Reads that saw a half-finished write
+    private final LongAdder optimisticRetries = new LongAdder();  // STAMPED reads that fell back to the lock
+    private final LongAccumulator maxWriterWait = new LongAccumulator(Long::max, 0);
+    private volatile boolean running = true;
+
+    // Results of run()
+    private double readsPerSecond, writesPerSecond;
+
+    public ReaderWriterProblem(Mode mode, int readWork, int writeWork) {
+        if (readWork < 1 || writeWork < 1) throw new IllegalArgumentException("Work must be at least one pass");
+        this.mode = mode;
+        this.readWork = readWork;
+        this.writeWork = writeWork;
+    }
+
+    public void read() throws InterruptedException {
+        switch (mode) {
+            case READER_PREFERRING:
+                enterReader();
+                finishRead(readCells());
+                exitReader();
+                break;
+            case WRITER_PREFERRING:
+                readTry.acquire();  // Blocked while any writer is waiting
+                enterReader();
+                readTry.release();
+                finishRead(readCells());
+                exitReader();
+                break;
+            case FAIR:
+                serviceQueue.acquire();  // Wait for our turn
+                enterReader();
+                serviceQueue.release();
+                finishRead(readCells());
+                exitReader();
+                break;
+            case RW_LOCK:
+                rwLock.readLock().lock();
+                try {
+                    finishRead(readCells());
+                } finally {
+                    rwLock.readLock().unlock();
+                }
+                break;
+            case STAMPED:
+                long stamp = stampedLock.tryOptimisticRead();
+                boolean consistent = readCells();
+                if (stamp == 0 || !stampedLock.validate(stamp)) {
+                    optimisticRetries.increment();
+                    stamp = stampedLock.readLock();
+                    try {
+                        consistent = readCells();
+                    } finally {
+                        stampedLock.unlockRead(stamp);
+                    }
+                }
+                finishRead(consistent);
+                break;
+        }
+    }
+
+    public void write() throws InterruptedException {
+        long requested = System.nanoTime();
+        switch (mode) {
+            case READER_PREFERRING:
+                writeSemaphore.acquire();  // Acquire write access
+                writeCells(requested);
+                writeSemaphore.release();  // Release write access after writing
+                break;
+            case WRITER_PREFERRING:
+                writeMutex.acquire();
+                if (++writeCount == 1) readTry.acquire();  // First waiting writer locks out new readers
+                writeMutex.release();
+                writeSemaphore.acquire();
+                writeCells(requested);
+                writeSemaphore.release();
+                writeMutex.acquire();
+                if (--writeCount == 0) readTry.release();  // Last writer lets readers in again
+                writeMutex.release();
+                break;
+            case FAIR:
+                serviceQueue.acquire();  // Wait for our turn
+                writeSemaphore.acquire();
+                serviceQueue.release();
+                writeCells(requested);
+                writeSemaphore.release();
+                break;
+            case RW_LOCK:
+                rwLock.writeLock().lock();
+                try {
+                    writeCells(requested);
+                } finally {
+                    rwLock.writeLock().unlock();
+                }
+                break;
+            case STAMPED:
+                long stamp = stampedLock.writeLock();
+                try {
+                    writeCells(requested);
+                } finally {
+                    stampedLock.unlockWrite(stamp);
+                }
+                break;
+        }
+    }
+
+    private void enterReader() throws InterruptedException {
+        mutex.acquire();  // Acquire to modify readCount
+        if (readCount.incrementAndGet() == 1) {
+            writeSemaphore.acquire();  // Block writers if First Reader arrives
+        }
+        mutex.release();  // Release readCount lock
+    }
+
+    private void exitReader() throws InterruptedException {
+        mutex.acquire();  // Acquire to modify readCount
+        if (readCount.decrementAndGet() == 0) {
+            writeSemaphore.release();  // Release writeSemaphore if Last Reader leaves
+        }
+        mutex.release();  // Release readCount lock
+    }
+
+    private boolean readCells() {
+        long first = cells[0];
+        boolean consistent = true;
+        for (int pass = 0; pass < readWork; pass++) {
+            for (int i = 0; i < CELLS; i++) consistent &= cells[i] == first;
+        }
+        return consistent;
+    }
+
+    private void finishRead(boolean consistent) {
+        if (!consistent) tornReads.increment();
+        reads.increment();
+    }
+
+    private void writeCells(long requested) {
+        maxWriterWait.accumulate(System.nanoTime() - requested);
+        for (int pass = 0; pass < writeWork; pass++) {
+            for (int i = 0; i < CELLS; i++) cells[i]++;
+        }
+        writes.increment();
+    }
 
     // Reader thread
-    static class Reader implements Runnable {
+    class Reader implements Runnable {
         private final int readerId;
 
         public Reader(int id) {
@@ -20,30 +192,17 @@ public class ReaderWriterProblem {
         @Override
         public void run() {
             try {
-                mutex.acquire();  // Acquire to modify readCount
-                if (readCount.incrementAndGet() == 1) {
-                    writeSemaphore.acquire();  // Block writers if First Reader arrives
-                }
-                mutex.release();  // Release readCount lock
-
-                // Simulate reading
-                LOGGER.info(() -> "Reader " + readerId + " is reading.");
-                TimeUnit.SECONDS.sleep(1);
-
-                mutex.acquire();  // Acquire to modify readCount
-                if (readCount.decrementAndGet() == 0) {
-                    writeSemaphore.release();  // Release writeSemaphore if Last Reader leaves
-                }
-                mutex.release();  // Release readCount lock
+                while (running) read();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 LOGGER.log(Level.WARNING, "Reader " + readerId + " interrupted", e);
             }
+            LOGGER.fine(() -> "Reader " + readerId + " finished.");
         }
     }
 
     // Writer thread
-    static class Writer implements Runnable {
+    class Writer implements Runnable {
         private final int writerId;
 
         public Writer(int id) {
@@ -53,49 +212,107 @@ public class ReaderWriterProblem {
         @Override
         public void run() {
             try {
-                writeSemaphore.acquire();  // Acquire write access
-
-                // Simulate writing
-                LOGGER.info(() -> "Writer " + writerId + " is writing.");
-                TimeUnit.SECONDS.sleep(2);
-
-                writeSemaphore.release();  // Release write access after writing
+                while (running) write();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 LOGGER.log(Level.WARNING, "Writer " + writerId + " interrupted", e);
             }
+            LOGGER.fine(() -> "Writer " + writerId + " finished.");
         }
     }
 
-    public static void main(String[] args) {
-        int numReaders = 5;
-        int numWriters = 3;
+    // Thread that writes writePercent% of the time and reads otherwise
+    class Worker implements Runnable {
+        private final int writePercent;
 
-        // Executor service with a fixed thread pool size
-        ExecutorService executor = Executors.newFixedThreadPool(numReaders + numWriters);
+        public Worker(int writePercent) {
+            this.writePercent = writePercent;
+        }
 
-        try {
-            // Submit reader tasks
-            for (int i = 0; i < numReaders; i++) {
-                executor.submit(new Reader(i + 1));
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    if (ThreadLocalRandom.current().nextInt(100) < writePercent) write();
+                    else read();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.log(Level.WARNING, "Worker interrupted", e);
             }
+        }
+    }
 
-            // Submit writer tasks
-            for (int i = 0; i < numWriters; i++) {
-                executor.submit(new Writer(i + 1));
-            }
+    // Runs the actors for durationMillis, then lets each finish its current access. Rates use the
+    // counts at the stop signal; the max writer wait also covers writers still queued at that point.
+    public void run(List<Runnable> actors, long durationMillis, ThreadMode threadMode) throws InterruptedException {
+        ExecutorService executor = threadMode.newExecutor(actors.size());
+        long start = System.nanoTime();
+        for (Runnable actor : actors) executor.submit(actor);
 
-            // Initiate orderly shutdown
-            executor.shutdown();
-            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
-                executor.shutdownNow();  // Force shutdown If timeout
-            }
+        Thread.sleep(durationMillis);
+        running = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        readsPerSecond = reads.sum() / seconds;
+        writesPerSecond = writes.sum() / seconds;
 
-            LOGGER.info("All threads finished execution.");
-        } catch (InterruptedException e) {
-            LOGGER.log(Level.SEVERE, "Main thread interrupted", e);
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            executor.shutdownNow();  // Force shutdown If timeout
         }
     }
+
+    double readsPerSecond() {
+        return readsPerSecond;
+    }
+
+    double writesPerSecond() {
+        return writesPerSecond;
+    }
+
+    double maxWriterWaitMillis() {
+        return maxWriterWait.get() / 1e6;
+    }
+
+    long tornReads() {
+        return tornReads.sum();
+    }
+
+    long optimisticRetries() {
+        return optimisticRetries.sum();
+    }
+
+    // ReaderWriterProblem [mode|all] [readers] [writers] [seconds] [readWork] [writeWork] [platform|virtual]
+    // Per-access messages are logged at FINE, so large runs do not serialize on the log handler.
+    public static void main(String[] args) throws InterruptedException {
+        String which = args.length > 0 ? args[0].toUpperCase() : "ALL";
+        int numReaders = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int numWriters = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        long durationMillis = args.length > 3 ? (long) (Double.parseDouble(args[3]) * 1000) : 2000;
+        int readWork = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int writeWork = args.length > 5 ? Integer.parseInt(args[5]) : 10;
+        ThreadMode threadMode = args.length > 6 ? ThreadMode.parse(args[6]) : ThreadMode.PLATFORM;
+
+        long baseline = ThreadMode.residentBytes();
+        String line = "+-------------------+--------------+--------------+-----------------+--------+";
+        System.out.println("\n" + line);
+        System.out.printf("| %-17s | %-12s | %-12s | %-15s | %-6s |\n", "Mode", "Reads/s", "Writes/s", "Max writer wait", "Torn");
+        System.out.println(line);
+        for (Mode mode : Mode.values()) {
+            if (!which.equals("ALL") && !which.equals(mode.name())) continue;
+            ReaderWriterProblem problem = new ReaderWriterProblem(mode, readWork, writeWork);
+            List<Runnable> actors = new ArrayList<>();
+            // One thread per reader and writer: pooled platform threads or virtual threads
+            for (int i = 0; i < numReaders; i++) actors.add(problem.new Reader(i + 1));
+            for (int i = 0; i < numWriters; i++) actors.add(problem.new Writer(i + 1));
+            problem.run(actors, durationMillis, threadMode);
+            System.out.printf("| %-17s | %-12.0f | %-12.0f | %-12.2f ms | %-6d |\n", mode, problem.readsPerSecond(),
+                    problem.writesPerSecond(), problem.maxWriterWaitMillis(), problem.tornReads());
+        }
+        System.out.println(line);
+
+        LOGGER.info("All threads finished execution.");
+        System.out.printf("%d readers and %d writers on %s threads, RSS +%.1f MB\n", numReaders, numWriters,
+                threadMode.resolve(), (ThreadMode.residentBytes() - baseline) / 1048576.0);
+    }
 }
\ No newline at end of file
@@ -1,75 +1,120 @@
+import java.io.IOException;
 import java.util.*;
 
-class RRProcess {
-    int pid;
-    int bt;
-    int rt; // Remaining time
-    int wt;
-    int tat;
-
-    RRProcess(int pid, int bt) {
-        this.pid = pid;
-        this.bt = bt;
-        this.rt = bt;
+public class RoundRobin_Scheduling {
+
+    // Round Robin with arrival times. The ready queue only holds unfinished processes, and whenever
+    // no arrival or completion can happen for r whole rounds, those rounds are applied arithmetically.
+    // New arrivals join the queue before the process whose slice just ended.
+    public static void roundRobin(ProcessTable processes, int timeQuantum) {
+        if (timeQuantum <= 0) throw new IllegalArgumentException("Time quantum must be positive");
+        processes.reset();
+        int n = processes.size;
+        int[] order = processes.arrivalOrder();
+        int[] remaining = processes.remaining;
+
+        IntRingQueue ready = new IntRingQueue(n);
+        long time = 0;
+        int next = 0, completed = 0, untilBatch = 0;
+
+        while (completed < n) {
+            // If CPU is idle, jump to the next arrival
+            if (ready.isEmpty() && time < processes.arrival[order[next]]) {
+                time = processes.arrival[order[next]];
+            }
+            while (next < n && processes.arrival[order[next]] <= time) {
+                ready.add(order[next++]);
+            }
+
+            // Once per round, skip all whole rounds in which nobody finishes and nobody arrives
+            if (--untilBatch <= 0) {
+                int k = ready.size();
+                int minRemaining = Integer.MAX_VALUE;
+                for (int q = 0; q < k; q++) minRemaining = Math.min(minRemaining, remaining[ready.get(q)]);
+                long rounds = (minRemaining - 1) / timeQuantum;
+                if (next < n) {
+                    rounds = Math.min(rounds, ((long) processes.arrival[order[next]] - time - 1) / ((long) k * timeQuantum));
+                }
+                if (rounds > 0) {
+                    for (int q = 0; q < k; q++) remaining[ready.get(q)] -= (int) (rounds * timeQuantum);
+                    time += rounds * k * timeQuantum;
+                }
+                untilBatch = k;
+            }
+
+            int i = ready.poll();
+            int slice = Math.min(remaining[i], timeQuantum);
+            time += slice;
+            remaining[i] -= slice;
+
+            while (next < n && processes.arrival[order[next]] <= time) {
+                ready.add(order[next++]);
+            }
+            if (remaining[i] > 0) {
+                ready.add(i);
+            } else {
+                processes.completion[i] = time;
+                completed++;
+            }
+        }
     }
-}
 
-public class RoundRobin_Scheduling {
-    public static void main(String[] args) {
+    // Trace mode: RoundRobin_Scheduling <trace> [csv|binary] [--out <file> [csv|binary]] [--summary] [--quantum <q>]
+    private static void runTrace(JobTrace.Options options) throws IOException {
+        ProcessTable processes = ProcessTable.of(options.load());
+        int timeQuantum = options.value("--quantum", 4);
+        roundRobin(processes, timeQuantum);
+
+        try (JobTrace.ResultWriter writer = options.writer()) {
+            writer.addAll(processes);
+            writer.printSummary("Round Robin (q = " + timeQuantum + ") - " + options.trace.getFileName());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            runTrace(new JobTrace.Options(args));
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
         System.out.print("Enter number of processes: ");
         int n = sc.nextInt();
 
-        RRProcess[] processes = new RRProcess[n];
+        ProcessTable processes = new ProcessTable(n);
 
         for (int i = 0; i < n; i++) {
             System.out.println("\nEnter details for Process " + (i + 1));
+            System.out.print("Arrival Time: ");
+            processes.arrival[i] = sc.nextInt();
             System.out.print("Burst Time: ");
-            int bt = sc.nextInt();
-            processes[i] = new RRProcess(i + 1, bt);
+            processes.burst[i] = sc.nextInt();
         }
 
         System.out.print("\nEnter Time Quantum: ");
         int timeQuantum = sc.nextInt();
 
         // Round Robin Scheduling Logic
-        int time = 0;
-        boolean done;
-        do {
-            done = true;
-            for (RRProcess p : processes) {
-                if (p.rt > 0) {
-                    done = false;
-                    if (p.rt > timeQuantum) {
-                        time += timeQuantum;
-                        p.rt -= timeQuantum;
-                    } else {
-                        time += p.rt;
-                        p.wt = time - p.bt;
-                        p.rt = 0;
-                    }
-                }
-            }
-        } while (!done);
+        roundRobin(processes, timeQuantum);
 
-        int totalWT = 0, totalTAT = 0;
+        long totalWT = 0, totalTAT = 0;
 
-        for (RRProcess p : processes) {
-            p.tat = p.wt + p.bt;
-            totalWT += p.wt;
-            totalTAT += p.tat;
+        for (int i = 0; i < n; i++) {
+            totalWT += processes.waiting(i);
+            totalTAT += processes.turnaround(i);
         }
 
         // Print aesthetic table
-        System.out.println("\n+---------+------------+--------------+----------------+");
-        System.out.printf("| %-7s | %-10s | %-12s | %-14s |\n", "Process", "Burst Time", "Waiting Time", "Turnaround Time");
-        System.out.println("+---------+------------+--------------+----------------+");
+        System.out.println("\n+---------+------------+------------+--------------+----------------+");
+        System.out.printf("| %-7s | %-10s | %-10s | %-12s | %-14s |\n", "Process", "Arrival", "Burst Time", "Waiting Time", "Turnaround Time");
+        System.out.println("+---------+------------+------------+--------------+----------------+");
 
-        for (RRProcess p : processes) {
-            System.out.printf("| %-7s | %-10d | %-12d | %-14d |\n", "P" + p.pid, p.bt, p.wt, p.tat);
+        for (int i = 0; i < n; i++) {
+            System.out.printf("| %-7s | %-10d | %-10d | %-12d | %-14d |\n", "P" + processes.id[i], processes.arrival[i],
+                    processes.burst[i], processes.waiting(i), processes.turnaround(i));
         }
 
-        System.out.println("+---------+------------+--------------+----------------+");
+        System.out.println("+---------+------------+------------+--------------+----------------+");
 
         System.out.printf("\nAverage Waiting Time    : %.2f\n", (float) totalWT / n);
         System.out.printf("Average Turnaround Time : %.2f\n", (float) totalTAT / n);
@@ -1,90 +1,118 @@
+import java.io.IOException;
 import java.util.*;
 
 public class SJF_Scheduling {
 
-    private static class Process {
-        int id, burstTime, arrivalTime, waitingTime, turnaroundTime, completionTime, remainingTime;
-
-        Process(int id, int burstTime, int arrivalTime) {
-            this.id = id;
-            this.burstTime = burstTime;
-            this.arrivalTime = arrivalTime;
-            this.remainingTime = burstTime;
-        }
-
-        // Deep copy constructor
-        Process(Process p) {
-            this(p.id, p.burstTime, p.arrivalTime);
-        }
-    }
-
-    // Generate process array
-    public static Process[] generateProcesses(int n, boolean randomArrival, Scanner scanner) {
+    // Generate process table
+    public static ProcessTable generateProcesses(int n, boolean randomArrival, Scanner scanner) {
         Random random = new Random();
-        Process[] processes = new Process[n];
+        ProcessTable processes = new ProcessTable(n);
         System.out.println("Enter Burst Time for each process:");
         for (int i = 0; i < n; i++) {
             System.out.print("P" + (i + 1) + " Burst Time: ");
-            int bt = scanner.nextInt();
-            int at = randomArrival ? random.nextInt(10) : 0;
-            processes[i] = new Process(i + 1, bt, at);
+            processes.burst[i] = scanner.nextInt();
+            processes.arrival[i] = randomArrival ? random.nextInt(10) : 0;
         }
         return processes;
     }
 
     // SJF (Non-Preemptive)
-    public static void sjfScheduling(Process[] original, String variant) {
-        Process[] processes = Arrays.stream(original).map(Process::new).toArray(Process[]::new);
-        int n = processes.length;
-        Arrays.sort(processes, Comparator.comparingInt(p -> p.arrivalTime));
+    public static void sjfScheduling(ProcessTable processes, String variant) {
+        displayResults("SJF (Non-Preemptive) - " + variant, processes, sjfTick(processes));
+    }
+
+    // Tick-by-tick reference for sjfHeap; returns the arrival order used for display
+    static int[] sjfTick(ProcessTable processes) {
+        processes.reset();
+        int n = processes.size;
+        int[] order = processes.arrivalOrder();
 
         boolean[] completed = new boolean[n];
-        int completedCount = 0, currentTime = 0;
+        int completedCount = 0;
+        long currentTime = 0;
 
         while (completedCount < n) {
             int minIndex = -1;
             int minBurst = Integer.MAX_VALUE;
 
-            for (int i = 0; i < n; i++) {
-                if (!completed[i] && processes[i].arrivalTime <= currentTime && processes[i].burstTime < minBurst) {
-                    minBurst = processes[i].burstTime;
-                    minIndex = i;
+            for (int k = 0; k < n; k++) {
+                int i = order[k];
+                if (!completed[k] && processes.arrival[i] <= currentTime && processes.burst[i] < minBurst) {
+                    minBurst = processes.burst[i];
+                    minIndex = k;
                 }
             }
 
             if (minIndex == -1) {
                 currentTime++;
             } else {
-                Process p = processes[minIndex];
-                p.completionTime = currentTime + p.burstTime;
-                p.turnaroundTime = p.completionTime - p.arrivalTime;
-                p.waitingTime = p.turnaroundTime - p.burstTime;
+                int i = order[minIndex];
+                processes.completion[i] = currentTime + processes.burst[i];
 
                 completed[minIndex] = true;
                 completedCount++;
-                currentTime = p.completionTime;
+                currentTime = processes.completion[i];
             }
         }
+        return order;
+    }
 
-        displayResults("SJF (Non-Preemptive) - " + variant, processes);
+    // SJF (Non-Preemptive) - heap based, skips idle gaps
+    public static void sjfHeapScheduling(ProcessTable processes, String variant) {
+        displayResults("SJF (Non-Preemptive) - " + variant, processes, sjfHeap(processes));
+    }
+
+    // Returns the arrival order used for display
+    static int[] sjfHeap(ProcessTable processes) {
+        processes.reset();
+        int n = processes.size;
+        int[] order = processes.arrivalOrder();
+
+        // Ready processes keyed on burst time, ties broken by arrival order
+        ProcessTable.ReadyQueue ready = new ProcessTable.ReadyQueue(n);
+
+        long currentTime = 0;
+        int next = 0;
+
+        while (next < n || !ready.isEmpty()) {
+            // If CPU is idle, jump to the next arrival
+            if (ready.isEmpty() && currentTime < processes.arrival[order[next]]) {
+                currentTime = processes.arrival[order[next]];
+            }
+            while (next < n && processes.arrival[order[next]] <= currentTime) {
+                ready.add(processes.burst[order[next]], next++);
+            }
+
+            int i = order[ready.poll()];
+            processes.completion[i] = currentTime + processes.burst[i];
+            currentTime = processes.completion[i];
+        }
+        return order;
     }
 
     // SRTF (Preemptive)
-    public static void srtfScheduling(Process[] original, String variant) {
-        Process[] processes = Arrays.stream(original).map(Process::new).toArray(Process[]::new);
-        int n = processes.length;
-        Arrays.sort(processes, Comparator.comparingInt(p -> p.arrivalTime));
+    public static void srtfScheduling(ProcessTable processes, String variant) {
+        displayResults("SRTF (Preemptive SJF) - " + variant, processes, srtfTick(processes));
+    }
+
+    // Tick-by-tick reference for srtfEvent; returns the arrival order used for display
+    static int[] srtfTick(ProcessTable processes) {
+        processes.reset();
+        int n = processes.size;
+        int[] order = processes.arrivalOrder();
 
-        int currentTime = 0, completedCount = 0;
+        long currentTime = 0;
+        int completedCount = 0;
 
         while (completedCount < n) {
             int minIndex = -1;
             int minRemaining = Integer.MAX_VALUE;
 
-            for (int i = 0; i < n; i++) {
-                if (processes[i].arrivalTime <= currentTime && processes[i].remainingTime > 0 &&
-                        processes[i].remainingTime < minRemaining) {
-                    minRemaining = processes[i].remainingTime;
+            for (int k = 0; k < n; k++) {
+                int i = order[k];
+                if (processes.arrival[i] <= currentTime && processes.remaining[i] > 0 &&
+                        processes.remaining[i] < minRemaining) {
+                    minRemaining = processes.remaining[i];
                     minIndex = i;
                 }
             }
@@ -92,59 +120,155 @@ public class SJF_Scheduling {
             if (minIndex == -1) {
                 currentTime++;
             } else {
-                Process p = processes[minIndex];
-                p.remainingTime--;
+                processes.remaining[minIndex]--;
                 currentTime++;
 
-                if (p.remainingTime == 0) {
-                    p.completionTime = currentTime;
-                    p.turnaroundTime = p.completionTime - p.arrivalTime;
-                    p.waitingTime = p.turnaroundTime - p.burstTime;
+                if (processes.remaining[minIndex] == 0) {
+                    processes.completion[minIndex] = currentTime;
                     completedCount++;
                 }
             }
         }
+        return order;
+    }
 
-        displayResults("SRTF (Preemptive SJF) - " + variant, processes);
+    // SRTF (Preemptive) - event driven, jumps between arrivals and completions
+    public static void srtfEventScheduling(ProcessTable processes, String variant) {
+        displayResults("SRTF (Preemptive SJF) - " + variant, processes, srtfEvent(processes));
+    }
+
+    // Returns the arrival order used for display
+    static int[] srtfEvent(ProcessTable processes) {
+        processes.reset();
+        int n = processes.size;
+        int[] order = processes.arrivalOrder();
+
+        // Ready processes keyed on remaining time; ties go to the earlier arrival like the tick loop
+        ProcessTable.ReadyQueue ready = new ProcessTable.ReadyQueue(n);
+
+        long currentTime = 0;
+        int completedCount = 0, next = 0;
+
+        while (completedCount < n) {
+            // If CPU is idle, jump to the next arrival
+            if (ready.isEmpty() && currentTime < processes.arrival[order[next]]) {
+                currentTime = processes.arrival[order[next]];
+            }
+            while (next < n && processes.arrival[order[next]] <= currentTime) {
+                ready.add(processes.remaining[order[next]], next++);
+            }
+
+            int k = ready.poll();
+            int i = order[k];
+
+            // Run until the process completes or the next arrival may preempt it
+            long untilArrival = next < n ? (long) processes.arrival[order[next]] - currentTime : Long.MAX_VALUE;
+            int slice = (int) Math.min(processes.remaining[i], untilArrival);
+            processes.remaining[i] -= slice;
+            currentTime += slice;
+
+            if (processes.remaining[i] == 0) {
+                processes.completion[i] = currentTime;
+                completedCount++;
+            } else {
+                ready.add(processes.remaining[i], k);
+            }
+        }
+        return order;
     }
 
     // Display formatted results and averages
-    public static void displayResults(String algorithm, Process[] processes) {
+    public static void displayResults(String algorithm, ProcessTable processes, int[] order) {
         double totalWT = 0, totalTAT = 0;
         System.out.println("\n--- " + algorithm + " ---");
         System.out.println("------------------------------------------------------------");
         System.out.printf("%-10s%-10s%-10s%-10s%-10s%-10s\n", "Process", "AT", "BT", "CT", "TAT", "WT");
         System.out.println("------------------------------------------------------------");
 
-        for (Process p : processes) {
-            totalWT += p.waitingTime;
-            totalTAT += p.turnaroundTime;
-            System.out.printf("%-10s%-10d%-10d%-10d%-10d%-10d\n",
-                    "P" + p.id, p.arrivalTime, p.burstTime, p.completionTime, p.turnaroundTime, p.waitingTime);
+        for (int i : order) {
+            totalWT += processes.waiting(i);
+            totalTAT += processes.turnaround(i);
+            System.out.printf("%-10s%-10d%-10d%-10d%-10d%-10d\n", "P" + processes.id[i], processes.arrival[i],
+                    processes.burst[i], processes.completion[i], processes.turnaround(i), processes.waiting(i));
         }
 
         System.out.println("------------------------------------------------------------");
-        System.out.printf("Average TAT = %.2f\n", totalTAT / processes.length);
-        System.out.printf("Average WT  = %.2f\n", totalWT / processes.length);
+        System.out.printf("Average TAT = %.2f\n", totalTAT / processes.size);
+        System.out.printf("Average WT  = %.2f\n", totalWT / processes.size);
+    }
+
+    // Trace mode: SJF_Scheduling <trace> [csv|binary] [--out <file> [csv|binary]] [--summary] [--srtf]
+    private static void runTrace(JobTrace.Options options) throws IOException {
+        ProcessTable processes = ProcessTable.of(options.load());
+        boolean preemptive = options.flag("--srtf");
+        if (preemptive) srtfEvent(processes);
+        else sjfHeap(processes);
+
+        try (JobTrace.ResultWriter writer = options.writer()) {
+            writer.addAll(processes);
+            writer.printSummary((preemptive ? "SRTF (Preemptive SJF) - " : "SJF (Non-Preemptive) - ") + options.trace.getFileName());
+        }
     }
 
-    public static void main(String[] args) {
+    // Differential check: the heap and event-driven schedulers must give the tick loops' completion
+    // times on random tables, including tied bursts, simultaneous arrivals and idle gaps
+    private static void verify(int tables, long seed) {
+        Random random = new Random(seed);
+        for (int t = 0; t < tables; t++) {
+            int n = 1 + random.nextInt(40);
+            int maxArrival = 1 + random.nextInt(60), maxBurst = 1 + random.nextInt(t % 2 == 0 ? 4 : 20);
+            ProcessTable processes = new ProcessTable(n);
+            for (int i = 0; i < n; i++) {
+                processes.arrival[i] = random.nextInt(maxArrival);
+                processes.burst[i] = 1 + random.nextInt(maxBurst);
+            }
+            sjfTick(processes);
+            long[] expected = processes.completion.clone();
+            sjfHeap(processes);
+            compare("SJF", t, processes, expected);
+
+            srtfTick(processes);
+            expected = processes.completion.clone();
+            srtfEvent(processes);
+            compare("SRTF", t, processes, expected);
+        }
+        System.out.printf("Verified %d random tables: heap SJF and event SRTF match the tick loops\n", tables);
+    }
+
+    private static void compare(String algorithm, int table, ProcessTable processes, long[] expected) {
+        for (int i = 0; i < processes.size; i++) {
+            if (processes.completion[i] != expected[i]) {
+                throw new IllegalStateException(algorithm + " mismatch in table " + table + " at P" + processes.id[i]
+                        + ": completion " + processes.completion[i] + ", tick loop " + expected[i]);
+            }
+        }
+    }
+
+    // SJF_Scheduling [--verify [tables] | <trace> ...]; no arguments reads processes from stdin
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--verify")) {
+            verify(args.length > 1 ? Integer.parseInt(args[1]) : 10_000, 42);
+            return;
+        }
+        if (args.length > 0) {
+            runTrace(new JobTrace.Options(args));
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
 
         System.out.print("Enter number of processes: ");
         int n = scanner.nextInt();
 
-        // Generate processes with and without arrival time
-        Process[] processesWithArrival = generateProcesses(n, true, scanner);
-        Process[] processesZeroArrival = Arrays.stream(processesWithArrival)
-                .map(p -> new Process(p.id, p.burstTime, 0))
-                .toArray(Process[]::new);
-
-        // Scheduling variants
-        sjfScheduling(processesWithArrival, "Arrival Time (Random)");
-        sjfScheduling(processesZeroArrival, "Arrival Time = 0");
-        srtfScheduling(processesWithArrival, "Arrival Time (Random)");
-        srtfScheduling(processesZeroArrival, "Arrival Time = 0");
+        // Generate processes with and without arrival time; the second table shares id and burst columns
+        ProcessTable processesWithArrival = generateProcesses(n, true, scanner);
+        ProcessTable processesZeroArrival = processesWithArrival.withArrivals(new int[n]);
+
+        // Scheduling variants; each run resets the table instead of copying it
+        sjfHeapScheduling(processesWithArrival, "Arrival Time (Random)");
+        sjfHeapScheduling(processesZeroArrival, "Arrival Time = 0");
+        srtfEventScheduling(processesWithArrival, "Arrival Time (Random)");
+        srtfEventScheduling(processesZeroArrival, "Arrival Time = 0");
 
         scanner.close();
     }
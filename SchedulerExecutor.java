@@ -0,0 +1,276 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Runs real CPU-bound jobs on K worker threads, dispatching them under FCFS, SJF, Priority or
+// Round Robin. Waiting and turnaround times are measured with System.nanoTime and printed in the
+// same table format as the simulators.
+public class SchedulerExecutor {
+
+    public enum Policy { FCFS, SJF, PRIORITY, RR }
+
+    // A job that runs in cooperative slices; runSlice returns true once the job has finished
+    public interface SlicedTask {
+        boolean runSlice(long sliceNanos);
+    }
+
+    private static final class Job {
+        final int id, priority;
+        final long estimatedBurst, sequence;
+        final SlicedTask task;
+        long submitted, readySince, waiting, running, completed;
+        Throwable failure;  // Set if runSlice threw; the job is retired without completing
+
+        Job(int id, SlicedTask task, long estimatedBurst, int priority, long sequence) {
+            this.id = id;
+            this.task = task;
+            this.estimatedBurst = estimatedBurst;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+    private final Policy policy;
+    private final long sliceNanos;
+    private final Queue<Job> ready;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition jobReady = lock.newCondition();
+    private final Condition allDone = lock.newCondition();
+    private final Thread[] workers;
+    private final List<Job> finished = new ArrayList<>();
+    private final List<Job> failed = new ArrayList<>();
+    private long sequence;
+    private int outstanding;
+    private boolean shutdown;
+
+    public SchedulerExecutor(int workerCount, Policy policy, long sliceNanos) {
+        if (workerCount <= 0 || (policy == Policy.RR && sliceNanos <= 0))
+            throw new IllegalArgumentException("Invalid executor configuration");
+        this.policy = policy;
+        this.sliceNanos = policy == Policy.RR ? sliceNanos : Long.MAX_VALUE;
+
+        switch (policy) {
+            case SJF:
+                ready = new PriorityQueue<>(Comparator.<Job>comparingLong(j -> j.estimatedBurst).thenComparingLong(j -> j.sequence));
+                break;
+            case PRIORITY:
+                ready = new PriorityQueue<>(Comparator.<Job>comparingInt(j -> j.priority).thenComparingLong(j -> j.sequence));
+                break;
+            default:
+                ready = new ArrayDeque<>();
+        }
+
+        workers = new Thread[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Thread(this::workerLoop, policy + "-worker-" + i);
+            workers[i].start();
+        }
+    }
+
+    // Submit a run-to-completion job; under RR it simply never yields
+    public void submit(int id, Runnable task, long estimatedBurst, int priority) {
+        submit(id, slice -> {
+            task.run();
+            return true;
+        }, estimatedBurst, priority);
+    }
+
+    public void submit(int id, SlicedTask task, long estimatedBurst, int priority) {
+        lock.lock();
+        try {
+            if (shutdown) throw new IllegalStateException("Executor is shut down");
+            Job job = new Job(id, task, estimatedBurst, priority, sequence++);
+            job.submitted = job.readySince = System.nanoTime();
+            ready.add(job);
+            outstanding++;
+            jobReady.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void awaitAll() throws InterruptedException {
+        lock.lock();
+        try {
+            while (outstanding > 0) allDone.await();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() throws InterruptedException {
+        lock.lock();
+        try {
+            shutdown = true;
+            jobReady.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Thread worker : workers) worker.join();
+    }
+
+    private void workerLoop() {
+        while (true) {
+            Job job;
+            lock.lock();
+            try {
+                while (ready.isEmpty() && !shutdown) jobReady.awaitUninterruptibly();
+                if (ready.isEmpty()) return;
+                job = ready.poll();
+            } finally {
+                lock.unlock();
+            }
+
+            long start = System.nanoTime();
+            job.waiting += start - job.readySince;
+            boolean done = false;
+            try {
+                done = job.task.runSlice(sliceNanos);
+            } catch (RuntimeException e) {
+                // A failing job must not take the worker down or leave awaitAll waiting for it
+                job.failure = e;
+            } catch (Error e) {
+                // Errors are not contained: the job is retired as failed below, then the Error ends this worker
+                job.failure = e;
+                throw e;
+            } finally {
+                endSlice(job, done, start);
+            }
+        }
+    }
+
+    // Retire the job, or put it back on the ready queue if its slice ended without finishing it
+    private void endSlice(Job job, boolean done, long start) {
+        long end = System.nanoTime();
+        job.running += end - start;
+
+        lock.lock();
+        try {
+            if (job.failure != null) {
+                job.completed = end;
+                failed.add(job);
+                if (--outstanding == 0) allDone.signalAll();
+            } else if (done) {
+                job.completed = end;
+                finished.add(job);
+                if (--outstanding == 0) allDone.signalAll();
+            } else {
+                job.readySince = end;
+                ready.add(job);
+                jobReady.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Number of jobs retired because their task threw
+    public int failedCount() {
+        lock.lock();
+        try {
+            return failed.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Per-job table (times in microseconds) followed by averages, p99 and throughput; failed jobs are
+    // listed separately and left out of the statistics
+    public void displayResults(boolean perJob) {
+        lock.lock();
+        try {
+            Job[] jobs = finished.toArray(new Job[0]);
+            Arrays.sort(jobs, Comparator.comparingInt(j -> j.id));
+            long firstSubmit = Long.MAX_VALUE, lastComplete = 0;
+            long[] waits = new long[jobs.length], turnarounds = new long[jobs.length];
+            double totalWT = 0, totalTAT = 0;
+
+            System.out.println("\n--- " + policy + " on " + workers.length + " workers (times in us) ---");
+            for (Job j : failed) {
+                System.out.println("P" + j.id + " failed: " + j.failure);
+            }
+            if (perJob) {
+                System.out.println("--------------------------------------------------");
+                System.out.printf("%-10s%-12s%-12s%-12s\n", "Process", "BT", "WT", "TAT");
+                System.out.println("--------------------------------------------------");
+            }
+            for (int i = 0; i < jobs.length; i++) {
+                Job j = jobs[i];
+                waits[i] = j.waiting / 1000;
+                turnarounds[i] = (j.completed - j.submitted) / 1000;
+                totalWT += waits[i];
+                totalTAT += turnarounds[i];
+                firstSubmit = Math.min(firstSubmit, j.submitted);
+                lastComplete = Math.max(lastComplete, j.completed);
+                if (perJob) {
+                    System.out.printf("%-10s%-12d%-12d%-12d\n", "P" + j.id, j.running / 1000, waits[i], turnarounds[i]);
+                }
+            }
+            if (jobs.length == 0) return;
+            Arrays.sort(waits);
+            Arrays.sort(turnarounds);
+            int p99 = (int) Math.ceil(jobs.length * 0.99) - 1;
+
+            System.out.println("--------------------------------------------------");
+            System.out.printf("Average Turnaround Time: %.2f us (p99 %d us)\n", totalTAT / jobs.length, turnarounds[p99]);
+            System.out.printf("Average Waiting Time   : %.2f us (p99 %d us)\n", totalWT / jobs.length, waits[p99]);
+            System.out.printf("Throughput             : %.1f jobs/s\n", jobs.length / ((lastComplete - firstSubmit) / 1e9));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // CPU-bound demo job: spins through a fixed amount of arithmetic, yielding at slice boundaries
+    static final class SpinJob implements SlicedTask {
+        private long remaining;
+        private long sink;
+
+        SpinJob(long iterations) {
+            remaining = iterations;
+        }
+
+        @Override
+        public boolean runSlice(long sliceNanos) {
+            long deadline = sliceNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + sliceNanos;
+            while (remaining > 0) {
+                long chunk = Math.min(remaining, 10_000);
+                for (long i = 0; i < chunk; i++) sink += i * i ^ sink;
+                remaining -= chunk;
+                if (remaining > 0 && System.nanoTime() >= deadline) return false;
+            }
+            return true;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int jobs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long sliceNanos = 2_000_000;  // 2 ms RR slice
+
+        // Same workload for every policy: bursts between 0.1M and 20M iterations, random priorities
+        Random random = new Random(42);
+        long[] bursts = new long[jobs];
+        int[] priorities = new int[jobs];
+        for (int i = 0; i < jobs; i++) {
+            bursts[i] = 100_000L + random.nextInt(20_000_000);
+            priorities[i] = random.nextInt(10);
+        }
+
+        for (Policy policy : Policy.values()) {
+            SchedulerExecutor executor = new SchedulerExecutor(workers, policy, sliceNanos);
+            for (int i = 0; i < jobs; i++) {
+                executor.submit(i + 1, new SpinJob(bursts[i]), bursts[i], priorities[i]);
+            }
+            executor.awaitAll();
+            executor.shutdown();
+            executor.displayResults(jobs <= 50);
+        }
+    }
+}
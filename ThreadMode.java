@@ -0,0 +1,69 @@
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// How the actor simulations (philosophers, readers, writers) get their threads: one pooled platform
+// thread per actor, or one virtual thread per actor. Virtual threads are looked up reflectively so
+// the code still compiles and runs on JDKs without them; there VIRTUAL falls back to platform threads.
+public enum ThreadMode {
+    PLATFORM, VIRTUAL;
+
+    private static final Method NEW_VIRTUAL_EXECUTOR = lookupVirtualExecutor();
+    private static boolean warned;
+
+    private static Method lookupVirtualExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    static boolean virtualThreadsAvailable() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    // Executor able to run `actors` tasks that all block at the same time
+    ExecutorService newExecutor(int actors) {
+        if (this == VIRTUAL) {
+            if (virtualThreadsAvailable()) {
+                try {
+                    return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create virtual thread executor", e);
+                }
+            }
+            if (!warned) System.err.println("Virtual threads need JDK 21+; using platform threads (" + Runtime.version() + ")");
+            warned = true;
+        }
+        return Executors.newFixedThreadPool(actors);
+    }
+
+    // Effective mode on this JVM
+    ThreadMode resolve() {
+        return this == VIRTUAL && !virtualThreadsAvailable() ? PLATFORM : this;
+    }
+
+    // Resident set size of this process in bytes; counts thread stacks, which heap figures do not.
+    // Falls back to used heap where /proc is not available.
+    static long residentBytes() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    static ThreadMode parse(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}